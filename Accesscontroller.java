@@ -0,0 +1,57 @@
+package com.example.controlpanel.controller;
+
+import com.example.controlpanel.dto.ButtonDTO;
+import com.example.controlpanel.service.PermissionService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+// Users, roles and their per-button / per-category grants
+@RestController
+@RequestMapping("/control-panel/admin/access")
+@PreAuthorize("hasRole('ADMIN')")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "${app.cors.allowed-origins}")
+public class AccessController {
+
+    private final PermissionService permissionService;
+
+    @GetMapping("/users")
+    public ResponseEntity<List<ButtonDTO.UserResponse>> getUsers() {
+        return ResponseEntity.ok(permissionService.getUsers());
+    }
+
+    @PutMapping("/users/{username}")
+    public ResponseEntity<ButtonDTO.UserResponse> saveUser(
+            @PathVariable String username,
+            @RequestBody ButtonDTO.UserRequest request) {
+        log.info("Saving user: {}", username);
+        return ResponseEntity.ok(permissionService.saveUser(username, request));
+    }
+
+    @DeleteMapping("/users/{username}")
+    public ResponseEntity<Void> deleteUser(@PathVariable String username) {
+        log.info("Deleting user: {}", username);
+        permissionService.deleteUser(username);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/roles")
+    public ResponseEntity<List<ButtonDTO.RoleResponse>> getRoles() {
+        return ResponseEntity.ok(permissionService.getRoles());
+    }
+
+    @PutMapping("/roles/{name}")
+    public ResponseEntity<ButtonDTO.RoleResponse> saveRole(
+            @PathVariable String name,
+            @Valid @RequestBody ButtonDTO.RoleRequest request) {
+        log.info("Saving role: {}", name);
+        return ResponseEntity.ok(permissionService.saveRole(name, request));
+    }
+}
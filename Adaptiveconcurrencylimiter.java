@@ -0,0 +1,175 @@
+package com.example.controlpanel.service;
+
+import com.example.controlpanel.dto.ButtonDTO;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.HttpUrl;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Per-host concurrency limits for outbound button calls, adjusted from observed latency
+// (gradient algorithm): while short-term RTT stays close to the long-term baseline the limit
+// grows, when it rises the limit shrinks in proportion. Timeouts, connection failures and
+// 429/503 responses back the limit off multiplicatively. Calls over the limit are rejected
+// immediately instead of queueing behind slow ones.
+@Component
+@Slf4j
+public class AdaptiveConcurrencyLimiter {
+
+    @Value("${app.limiter.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.limiter.initial-limit:20}")
+    private int initialLimit;
+
+    @Value("${app.limiter.min-limit:2}")
+    private int minLimit;
+
+    @Value("${app.limiter.max-limit:200}")
+    private int maxLimit;
+
+    // Fraction of the computed limit applied per sample
+    @Value("${app.limiter.smoothing:0.2}")
+    private double smoothing;
+
+    // RTT increase over the baseline that is tolerated before the limit shrinks
+    @Value("${app.limiter.rtt-tolerance:1.5}")
+    private double rttTolerance;
+
+    @Value("${app.limiter.backoff-ratio:0.9}")
+    private double backoffRatio;
+
+    private final Map<String, HostLimit> hosts = new ConcurrentHashMap<>();
+
+    public Permit acquire(String url) {
+        if (!enabled) {
+            return Permit.UNLIMITED;
+        }
+        String host = hostOf(url);
+        HostLimit hostLimit = hosts.computeIfAbsent(host, HostLimit::new);
+        if (!hostLimit.tryAcquire()) {
+            throw new ConcurrencyLimitExceededException("Target host " + host + " is at its concurrency limit ("
+                    + hostLimit.currentLimit() + "); retry later");
+        }
+        return new Permit(hostLimit, System.nanoTime());
+    }
+
+    public List<ButtonDTO.HostConcurrency> getLimits() {
+        return hosts.values().stream()
+                .map(HostLimit::snapshot)
+                .sorted(Comparator.comparing(ButtonDTO.HostConcurrency::getHost))
+                .toList();
+    }
+
+    private static String hostOf(String url) {
+        HttpUrl parsed = url != null ? HttpUrl.parse(url) : null;
+        return parsed != null ? parsed.host() + ":" + parsed.port() : String.valueOf(url);
+    }
+
+    public static class Permit {
+        static final Permit UNLIMITED = new Permit(null, 0);
+
+        private final HostLimit hostLimit;
+        private final long startNanos;
+
+        private Permit(HostLimit hostLimit, long startNanos) {
+            this.hostLimit = hostLimit;
+            this.startNanos = startNanos;
+        }
+
+        // The call completed; overloaded means the target signalled overload (429/503)
+        public void release(boolean overloaded) {
+            if (hostLimit != null) {
+                hostLimit.release(System.nanoTime() - startNanos, overloaded);
+            }
+        }
+
+        // Timeouts and connection failures
+        public void releaseDropped() {
+            release(true);
+        }
+
+        // Background jobs: minutes-long calls say nothing about the target's latency
+        public void releaseUnsampled() {
+            if (hostLimit != null) {
+                hostLimit.inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    public static class ConcurrencyLimitExceededException extends RuntimeException {
+        public ConcurrencyLimitExceededException(String message) {
+            super(message);
+        }
+    }
+
+    private class HostLimit {
+        private final String host;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicLong rejected = new AtomicLong();
+        private volatile double limit = initialLimit;
+        private double shortRttNanos;
+        private double longRttNanos;
+
+        HostLimit(String host) {
+            this.host = host;
+        }
+
+        int currentLimit() {
+            return (int) limit;
+        }
+
+        boolean tryAcquire() {
+            while (true) {
+                int current = inFlight.get();
+                if (current >= (int) limit) {
+                    rejected.incrementAndGet();
+                    return false;
+                }
+                if (inFlight.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        synchronized void release(long rttNanos, boolean dropped) {
+            int inFlightAtCompletion = inFlight.getAndDecrement();
+            if (dropped) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+                return;
+            }
+
+            // Fast average tracks current latency, slow average is the no-load baseline
+            shortRttNanos = shortRttNanos == 0 ? rttNanos : shortRttNanos + (rttNanos - shortRttNanos) / 10;
+            longRttNanos = longRttNanos == 0 ? rttNanos : longRttNanos + (rttNanos - longRttNanos) / 500;
+            // Let the baseline recover quickly once an incident is over
+            if (longRttNanos > shortRttNanos * 2) {
+                longRttNanos *= 0.95;
+            }
+
+            // Under-used limits say nothing about capacity; don't grow them
+            if (inFlightAtCompletion < limit / 2) {
+                return;
+            }
+            double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRttNanos / shortRttNanos));
+            double target = limit * gradient + Math.sqrt(limit);
+            double next = limit * (1 - smoothing) + target * smoothing;
+            double bounded = Math.max(minLimit, Math.min(maxLimit, next));
+            if ((int) bounded != (int) limit) {
+                log.debug("Concurrency limit for {}: {} -> {}", host, (int) limit, (int) bounded);
+            }
+            limit = bounded;
+        }
+
+        synchronized ButtonDTO.HostConcurrency snapshot() {
+            return new ButtonDTO.HostConcurrency(host, (int) limit, inFlight.get(),
+                    shortRttNanos / 1_000_000, longRttNanos / 1_000_000, rejected.get());
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package com.example.controlpanel.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// Throughput of single API paths against a running backend, one scenario per run. Unlike
+// Loadtest.java there is no traffic mix and no SLO: each case drives one request type with
+// `users` concurrent clients and prints requests/s, latency percentiles and response size.
+// JDK only, so it runs as a single source file:
+//
+//   java -Dscenario=persistence -Dusers=20 -Dbuttons=2000 Apibenchmark.java
+//
+// Scenarios:
+//   persistence  creates buttons one POST /button at a time (sequence ids from the pooled
+//                optimizer), reads each once (second-level cache miss), then reads them at
+//                random for `seconds` (cache hits)
+//   streaming    the button list through blocking JPA (GET /buttons) and through R2DBC as
+//                NDJSON (GET /stream/buttons, needs app.reactive.enabled=true), at each
+//                concurrency in `levels`
+//   transfer     imports `buttons` new buttons as one NDJSON body (POST /buttons/import),
+//                exports all buttons (GET /buttons/export), then imports the same buttons
+//                again by id as updates; each step is one request, reported in lines/s
+//
+// See api-benchmark.sh for starting PostgreSQL and the backend around it.
+public class ApiBenchmark {
+
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+    private static final Pattern FAILED = Pattern.compile("\"failed\"\\s*:\\s*(\\d+)");
+
+    @FunctionalInterface
+    interface Call {
+        HttpResponse<byte[]> send(int iteration) throws Exception;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Config config = new Config();
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newFixedThreadPool(Math.max(4, config.users), ApiBenchmark::daemon))
+                .build();
+        Api api = new Api(client, config);
+
+        System.out.printf("Scenario %s against %s: %d users, %d s warm-up and %d s per timed case%n%n",
+                config.scenario, config.baseUrl, config.users, config.warmupSeconds, config.seconds);
+        switch (config.scenario) {
+            case "persistence" -> persistence(api, config);
+            case "streaming" -> streaming(api, config);
+            case "transfer" -> transfer(api, config);
+            default -> throw new IllegalArgumentException("Unknown scenario: " + config.scenario);
+        }
+    }
+
+    private static void persistence(Api api, Config config) throws Exception {
+        printHeader();
+        List<Long> ids = Collections.synchronizedList(new ArrayList<>());
+        try {
+            // A fixed number of inserts rather than a fixed time, so the read cases see the same table
+            createButtons(api, config, ids);
+            List<Long> created = List.copyOf(ids);
+            if (created.isEmpty()) {
+                throw new IllegalStateException("No button could be created");
+            }
+            counted("get button (first read)", config.users, created.size(),
+                    i -> api.send(api.request("/control-panel/button/" + created.get(i)).GET().build()));
+            timed("get button (cached)", config.users, config, i -> api.send(api.request("/control-panel/button/"
+                    + created.get(ThreadLocalRandom.current().nextInt(created.size()))).GET().build()));
+        } finally {
+            ids.forEach(id -> api.deleteQuietly("/control-panel/button/" + id));
+        }
+    }
+
+    private static void streaming(Api api, Config config) throws Exception {
+        printHeader();
+        List<Long> ids = Collections.synchronizedList(new ArrayList<>());
+        try {
+            createButtons(api, config, ids);
+            HttpRequest blocking = api.request("/control-panel/buttons").GET().build();
+            HttpRequest streamed = api.request("/control-panel/stream/buttons")
+                    .header("Accept", "application/x-ndjson").GET().build();
+            for (int users : config.levels) {
+                timed("list blocking, " + users + " users", users, config, i -> api.send(blocking));
+                timed("list streamed, " + users + " users", users, config, i -> api.send(streamed));
+            }
+        } finally {
+            ids.forEach(id -> api.deleteQuietly("/control-panel/button/" + id));
+        }
+    }
+
+    private static void transfer(Api api, Config config) throws Exception {
+        System.out.printf("%-30s %9s %9s %11s %11s %8s%n", "case", "lines", "seconds", "lines/s", "MB", "failed");
+        // Labels carry the run, so the export can tell this run's buttons from any others
+        String prefix = "import-" + System.currentTimeMillis() + "-";
+        List<Long> ids = new ArrayList<>();
+        try {
+            StringBuilder created = new StringBuilder();
+            for (int i = 0; i < config.buttons; i++) {
+                created.append(buttonJson(prefix + i, config.targetUrl)).append('\n');
+            }
+            importLines(api, "import (create)", config.buttons, created);
+            ids.addAll(exportIds(api, prefix, true));
+
+            // Lines with an id update the stored button; here only the icon changes
+            StringBuilder updated = new StringBuilder();
+            for (int i = 0; i < ids.size(); i++) {
+                updated.append("{\"id\":").append(ids.get(i)).append(",\"icon\":\"sync\",")
+                        .append(buttonJson(prefix + i, config.targetUrl).substring(1)).append('\n');
+            }
+            importLines(api, "import (update)", ids.size(), updated);
+        } finally {
+            if (ids.isEmpty()) {
+                // The import may have created buttons before a later step failed
+                try {
+                    ids.addAll(exportIds(api, prefix, false));
+                } catch (Exception e) {
+                    System.err.println("Could not list imported buttons: " + e.getMessage());
+                }
+            }
+            Stats deleted = drive(config.users, ids.size(), Long.MAX_VALUE,
+                    i -> api.send(api.request("/control-panel/button/" + ids.get(i)).DELETE().build()));
+            if (deleted.errors > 0) {
+                System.err.println("Could not delete " + deleted.errors + " imported buttons (labels start with " + prefix + ")");
+            }
+        }
+    }
+
+    private static void importLines(Api api, String name, int lines, CharSequence body) throws Exception {
+        byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response = api.send(api.request("/control-panel/buttons/import")
+                .setHeader("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(bytes)).build());
+        double seconds = (System.nanoTime() - start) / 1e9;
+        String result = new String(response.body(), StandardCharsets.UTF_8);
+        Matcher failed = FAILED.matcher(result);
+        if (response.statusCode() / 100 != 2 || !failed.find()) {
+            throw new IllegalStateException(name + " failed with " + response.statusCode() + ": " + result);
+        }
+        System.out.printf("%-30s %9d %9.1f %11.1f %11.1f %8s%n",
+                name, lines, seconds, lines / seconds, bytes.length / (1024.0 * 1024), failed.group(1));
+    }
+
+    // Streams the whole export and returns the ids of the buttons whose label starts with prefix
+    private static List<Long> exportIds(Api api, String prefix, boolean report) throws Exception {
+        String label = "\"label\":\"" + prefix;
+        List<Long> ids = new ArrayList<>();
+        long lines = 0;
+        long bytes = 0;
+        long start = System.nanoTime();
+        HttpResponse<Stream<String>> response = api.sendLines(
+                api.request("/control-panel/buttons/export").header("Accept", "application/x-ndjson").GET().build());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("export failed with " + response.statusCode());
+        }
+        try (Stream<String> body = response.body()) {
+            for (Iterator<String> iterator = body.iterator(); iterator.hasNext(); ) {
+                String line = iterator.next();
+                lines++;
+                bytes += line.length() + 1;
+                Matcher id = ID.matcher(line);
+                if (line.contains(label) && id.find()) {
+                    ids.add(Long.parseLong(id.group(1)));
+                }
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        if (report) {
+            System.out.printf("%-30s %9d %9.1f %11.1f %11.1f %8s%n",
+                    "export", lines, seconds, lines / seconds, bytes / (1024.0 * 1024), "-");
+        }
+        return ids;
+    }
+
+    private static void createButtons(Api api, Config config, List<Long> ids) throws InterruptedException {
+        counted("create button", config.users, config.buttons, i -> {
+            HttpResponse<byte[]> response = api.send(api.request("/control-panel/button")
+                    .POST(HttpRequest.BodyPublishers.ofString(buttonJson("bench-" + i, config.targetUrl))).build());
+            Matcher matcher = ID.matcher(new String(response.body(), StandardCharsets.UTF_8));
+            if (response.statusCode() / 100 == 2 && matcher.find()) {
+                ids.add(Long.parseLong(matcher.group(1)));
+            }
+            return response;
+        });
+    }
+
+    static String buttonJson(String label, String targetUrl) {
+        return "{\"label\":\"" + label + "\",\"category\":\"benchmark\",\"actionType\":\"REST_API_CALL\","
+                + "\"targetEndpoint\":\"" + targetUrl + "\",\"httpMethod\":\"GET\",\"expectedOutputFormat\":\"JSON\","
+                + "\"payloadParameters\":{\"environment\":\"benchmark\",\"retries\":3}}";
+    }
+
+    private static void printHeader() {
+        System.out.printf("%-30s %9s %9s %9s %9s %9s %8s %11s%n",
+                "case", "requests", "req/s", "p50 ms", "p90 ms", "p99 ms", "errors", "bytes/req");
+    }
+
+    // Exactly total calls, shared by the users
+    private static void counted(String name, int users, int total, Call call) throws InterruptedException {
+        drive(users, total, Long.MAX_VALUE, call).print(name);
+    }
+
+    // An untimed warm-up, then as many calls as fit into config.seconds
+    private static void timed(String name, int users, Config config, Call call) throws InterruptedException {
+        drive(users, Integer.MAX_VALUE, TimeUnit.SECONDS.toNanos(config.warmupSeconds), call);
+        drive(users, Integer.MAX_VALUE, TimeUnit.SECONDS.toNanos(config.seconds), call).print(name);
+    }
+
+    private static Stats drive(int users, int total, long nanos, Call call) throws InterruptedException {
+        AtomicInteger next = new AtomicInteger();
+        long start = System.nanoTime();
+        long deadline = nanos == Long.MAX_VALUE ? Long.MAX_VALUE : start + nanos;
+        List<Stats> perUser = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(users, ApiBenchmark::daemon);
+        for (int u = 0; u < users; u++) {
+            Stats stats = new Stats();
+            perUser.add(stats);
+            pool.execute(() -> {
+                int i;
+                while ((i = next.getAndIncrement()) < total && System.nanoTime() < deadline) {
+                    long begin = System.nanoTime();
+                    try {
+                        HttpResponse<byte[]> response = call.send(i);
+                        stats.record(System.nanoTime() - begin, response.statusCode() / 100 == 2, response.body().length);
+                    } catch (Exception e) {
+                        stats.record(System.nanoTime() - begin, false, 0);
+                    }
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.DAYS);
+
+        Stats merged = new Stats();
+        perUser.forEach(merged::merge);
+        merged.elapsedNanos = System.nanoTime() - start;
+        Arrays.sort(merged.latencies, 0, merged.count);
+        return merged;
+    }
+
+    // Nothing the harness starts may keep the JVM alive after a failed run
+    private static Thread daemon(Runnable runnable) {
+        Thread thread = new Thread(runnable);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private static class Stats {
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+        private long bytes;
+        private long elapsedNanos;
+
+        void record(long latencyNanos, boolean ok, int responseBytes) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latencyNanos;
+            bytes += responseBytes;
+            if (!ok) {
+                errors++;
+            }
+        }
+
+        void merge(Stats other) {
+            if (count + other.count > latencies.length) {
+                latencies = Arrays.copyOf(latencies, count + other.count);
+            }
+            System.arraycopy(other.latencies, 0, latencies, count, other.count);
+            count += other.count;
+            errors += other.errors;
+            bytes += other.bytes;
+        }
+
+        double percentileMs(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+            return latencies[Math.max(0, Math.min(index, count - 1))] / 1_000_000.0;
+        }
+
+        void print(String name) {
+            System.out.printf("%-30s %9d %9.1f %9.1f %9.1f %9.1f %7.2f%% %11d%n",
+                    name, count, count / (elapsedNanos / 1e9), percentileMs(50), percentileMs(90), percentileMs(99),
+                    count == 0 ? 0 : 100.0 * errors / count, count == 0 ? 0 : bytes / count);
+        }
+    }
+
+    private static class Api {
+        private final HttpClient client;
+        private final Config config;
+        private final String authorization;
+
+        Api(HttpClient client, Config config) {
+            this.client = client;
+            this.config = config;
+            this.authorization = "Basic " + Base64.getEncoder()
+                    .encodeToString(config.auth.getBytes(StandardCharsets.UTF_8));
+        }
+
+        HttpRequest.Builder request(String path) {
+            return HttpRequest.newBuilder(URI.create(config.baseUrl + path))
+                    .timeout(Duration.ofSeconds(60))
+                    .header("Authorization", authorization)
+                    .header("Content-Type", "application/json");
+        }
+
+        HttpResponse<byte[]> send(HttpRequest request) throws Exception {
+            return client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        }
+
+        HttpResponse<Stream<String>> sendLines(HttpRequest request) throws Exception {
+            return client.send(request, HttpResponse.BodyHandlers.ofLines());
+        }
+
+        void deleteQuietly(String path) {
+            try {
+                send(request(path).DELETE().build());
+            } catch (Exception e) {
+                System.err.println("Could not delete " + path + ": " + e.getMessage());
+            }
+        }
+    }
+
+    // All settings are system properties (-Dname=value)
+    private static class Config {
+        final String scenario = System.getProperty("scenario", "persistence");
+        final String baseUrl = System.getProperty("baseUrl", "http://localhost:8080/api");
+        final String auth = System.getProperty("auth", "user:password");
+        final int users = Integer.getInteger("users", 20);
+        final int buttons = Integer.getInteger("buttons", 2000);
+        final int warmupSeconds = Integer.getInteger("warmup", 5);
+        final int seconds = Integer.getInteger("seconds", 20);
+        // Concurrency levels of the streaming scenario
+        final int[] levels = Arrays.stream(System.getProperty("levels", "50,200,500").split(","))
+                .mapToInt(level -> Integer.parseInt(level.trim()))
+                .toArray();
+        // Buttons created by the benchmark are never executed, the endpoint only has to be valid
+        final String targetUrl = System.getProperty("targetUrl", "http://localhost:9/benchmark");
+    }
+}
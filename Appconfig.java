@@ -1,17 +1,84 @@
 package com.example.controlpanel.config;
 
+import com.example.controlpanel.profiling.JfrRecordingService;
+import com.example.controlpanel.service.AuditBodyStore;
+import com.example.controlpanel.service.ButtonSearchIndex;
+import com.example.controlpanel.service.ConnectionWarmer;
+import com.example.controlpanel.service.CredentialManager;
+import com.example.controlpanel.service.ExecutionJobService;
+import com.example.controlpanel.service.PermissionService;
+import com.example.controlpanel.service.ResultSpool;
+import com.example.controlpanel.service.TargetHealthProber;
+import com.example.controlpanel.tracing.Tracer;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.NativeDetector;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
+@EnableScheduling
 public class AppConfig {
 
     @Bean
     public ObjectMapper objectMapper() {
-        ObjectMapper mapper = new ObjectMapper();
+        return configure(new ObjectMapper());
+    }
+
+    // Binary responses for machine clients sending Accept: application/cbor. Boot puts this in
+    // place of its default CBOR converter, after JSON, so */* and browsers still get JSON.
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter() {
+        return new MappingJackson2CborHttpMessageConverter(configure(new CBORMapper()));
+    }
+
+    private static ObjectMapper configure(ObjectMapper mapper) {
         mapper.registerModule(new JavaTimeModule());
+        // Generated accessors instead of reflection; needs runtime class definition, so not in native images
+        if (!NativeDetector.inNativeImage()) {
+            mapper.registerModule(new BlackbirdModule());
+        }
         return mapper;
     }
+
+    // Client for button target calls. The pool is shared with the connection warmer, so it
+    // must hold at least app.warmup.min-connections per warmed host to keep them idle-ready.
+    @Bean
+    public OkHttpClient targetHttpClient(@Value("${app.http.pool.max-idle:64}") int maxIdle,
+                                         @Value("${app.http.pool.keep-alive:PT5M}") Duration keepAlive) {
+        return new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(maxIdle, keepAlive.toMillis(), TimeUnit.MILLISECONDS))
+                .connectTimeout(10, TimeUnit.SECONDS)
+                .readTimeout(30, TimeUnit.SECONDS)
+                .writeTimeout(30, TimeUnit.SECONDS)
+                .build();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sampledSqlLogging(@Value("${app.logging.sql-sample-rate:0}") double sampleRate,
+                                                           Tracer tracer) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SampledSqlLogger(sampleRate, tracer));
+    }
+
+    // Background work must start with the context even when lazy initialization is on
+    @Bean
+    public static LazyInitializationExcludeFilter eagerBackgroundBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(ButtonSearchIndex.class, AuditBodyStore.class,
+                ResultSpool.class, JfrRecordingService.class, PermissionService.class,
+                ExecutionJobService.class, CredentialManager.class, ConnectionWarmer.class,
+                TargetHealthProber.class);
+    }
 }
@@ -0,0 +1,18 @@
+package com.example.controlpanel.repository;
+
+import com.example.controlpanel.entity.AppUser;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AppUserRepository extends JpaRepository<AppUser, Long> {
+    Optional<AppUser> findByUsername(String username);
+
+    // One round trip for the whole authorization snapshot
+    @Query("SELECT DISTINCT u FROM AppUser u LEFT JOIN FETCH u.roles r LEFT JOIN FETCH r.grants")
+    List<AppUser> findAllWithGrants();
+}
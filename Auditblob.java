@@ -0,0 +1,39 @@
+package com.example.controlpanel.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "audit_blobs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditBlob {
+
+    // Hex SHA-256 of the UTF-8 body
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    @Column(nullable = false, length = 10)
+    @Enumerated(EnumType.STRING)
+    private AuditLog.BodyCodec codec;
+
+    @Column(nullable = false, columnDefinition = "bytea")
+    private byte[] content;
+
+    @Column(nullable = false)
+    private Integer sizeBytes;
+
+    @Column(nullable = false)
+    private Long refCount;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
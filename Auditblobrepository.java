@@ -0,0 +1,42 @@
+package com.example.controlpanel.repository;
+
+import com.example.controlpanel.entity.AuditBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+// Modifying queries join the caller's transaction or open their own (workflow step threads)
+@Repository
+public interface AuditBlobRepository extends JpaRepository<AuditBlob, String> {
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE audit_blobs SET ref_count = ref_count + 1 WHERE hash = :hash", nativeQuery = true)
+    int incrementRefCount(@Param("hash") String hash);
+
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO audit_blobs (hash, codec, content, size_bytes, ref_count, created_at) " +
+            "VALUES (:hash, :codec, :content, :sizeBytes, 1, now()) " +
+            "ON CONFLICT (hash) DO UPDATE SET ref_count = audit_blobs.ref_count + 1",
+            nativeQuery = true)
+    int insertOrIncrement(@Param("hash") String hash,
+                          @Param("codec") String codec,
+                          @Param("content") byte[] content,
+                          @Param("sizeBytes") int sizeBytes);
+
+    // Gives back a reference whose audit row was rolled back
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE audit_blobs SET ref_count = ref_count - 1 WHERE hash = :hash", nativeQuery = true)
+    int decrementRefCount(@Param("hash") String hash);
+
+    // ref_count is otherwise decremented by the audit_logs delete trigger (see init.sql)
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM audit_blobs WHERE ref_count <= 0", nativeQuery = true)
+    int deleteUnreferenced();
+}
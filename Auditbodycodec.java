@@ -0,0 +1,58 @@
+package com.example.controlpanel.service;
+
+import com.example.controlpanel.entity.AuditLog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+@Component
+public class AuditBodyCodec {
+
+    @Value("${app.audit.compression:NONE}")
+    private AuditLog.BodyCodec codec;
+
+    @Value("${app.audit.compression-threshold:1024}")
+    private int threshold;
+
+    public AuditLog.BodyCodec codecFor(int length) {
+        return length >= threshold ? codec : AuditLog.BodyCodec.NONE;
+    }
+
+    public byte[] encode(String value, AuditLog.BodyCodec codec) {
+        if (value == null) {
+            return null;
+        }
+        byte[] raw = value.getBytes(StandardCharsets.UTF_8);
+        if (codec != AuditLog.BodyCodec.GZIP) {
+            return raw;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(raw);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    public String decode(byte[] value, AuditLog.BodyCodec codec) {
+        if (value == null) {
+            return null;
+        }
+        if (codec != AuditLog.BodyCodec.GZIP) {
+            return new String(value, StandardCharsets.UTF_8);
+        }
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(value))) {
+            return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
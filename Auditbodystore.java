@@ -0,0 +1,190 @@
+package com.example.controlpanel.service;
+
+import com.example.controlpanel.entity.AuditBlob;
+import com.example.controlpanel.entity.AuditLog;
+import com.example.controlpanel.repository.AuditBlobRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Writes and reads audit request/response bodies. With dedup enabled, bodies live once
+// in audit_blobs keyed by content hash and audit rows only carry the hash. Small bodies
+// stay inline: the most common ones ("{}", short error texts) would otherwise all bump the
+// ref_count of one row, and its row lock would serialize concurrent executions. For the same
+// reason a reference is taken in its own short transaction rather than the execution's, which
+// stays open until the audit row commits; it is given back if that transaction rolls back.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AuditBodyStore {
+
+    private final AuditBlobRepository blobRepository;
+    private final AuditBodyCodec codec;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.audit.dedup.enabled:true}")
+    private boolean dedupEnabled;
+
+    @Value("${app.audit.dedup.recent-cache-size:10000}")
+    private int recentCacheSize;
+
+    @Value("${app.audit.dedup.min-bytes:256}")
+    private int dedupMinBytes;
+
+    private Set<String> recentHashes;
+    private TransactionTemplate referenceTransaction;
+
+    @PostConstruct
+    void init() {
+        referenceTransaction = new TransactionTemplate(transactionManager);
+        referenceTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        recentHashes = Collections.newSetFromMap(Collections.synchronizedMap(
+                new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                        return size() > recentCacheSize;
+                    }
+                }));
+    }
+
+    public void writeBodies(AuditLog auditLog, String requestPayload, String responseData) {
+        if (dedupEnabled) {
+            auditLog.setBodyCodec(AuditLog.BodyCodec.NONE);
+            auditLog.setRequestPayloadHash(storeBlob(requestPayload));
+            auditLog.setResponseDataHash(storeBlob(responseData));
+            auditLog.setRequestPayload(auditLog.getRequestPayloadHash() == null ? requestPayload : null);
+            auditLog.setResponseData(auditLog.getResponseDataHash() == null ? responseData : null);
+            return;
+        }
+
+        AuditLog.BodyCodec bodyCodec = codec.codecFor(length(requestPayload) + length(responseData));
+        auditLog.setBodyCodec(bodyCodec);
+        if (bodyCodec == AuditLog.BodyCodec.NONE) {
+            auditLog.setRequestPayload(requestPayload);
+            auditLog.setResponseData(responseData);
+        } else {
+            auditLog.setRequestPayload(null);
+            auditLog.setResponseData(null);
+            auditLog.setRequestPayloadCompressed(codec.encode(requestPayload, bodyCodec));
+            auditLog.setResponseDataCompressed(codec.encode(responseData, bodyCodec));
+        }
+    }
+
+    // Loads every blob referenced by the given rows in one query
+    public Map<String, String> loadBlobs(Collection<AuditLog> auditLogs) {
+        Set<String> hashes = auditLogs.stream()
+                .flatMap(auditLog -> Stream.of(auditLog.getRequestPayloadHash(), auditLog.getResponseDataHash()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (hashes.isEmpty()) {
+            return Map.of();
+        }
+        return blobRepository.findAllById(hashes).stream()
+                .collect(Collectors.toMap(AuditBlob::getHash,
+                        blob -> codec.decode(blob.getContent(), blob.getCodec())));
+    }
+
+    public String readRequestPayload(AuditLog auditLog, Map<String, String> blobs) {
+        return read(auditLog, auditLog.getRequestPayloadHash(), auditLog.getRequestPayload(),
+                auditLog.getRequestPayloadCompressed(), blobs);
+    }
+
+    public String readResponseData(AuditLog auditLog, Map<String, String> blobs) {
+        return read(auditLog, auditLog.getResponseDataHash(), auditLog.getResponseData(),
+                auditLog.getResponseDataCompressed(), blobs);
+    }
+
+    @Scheduled(fixedDelayString = "${app.audit.dedup.gc-interval-ms:3600000}")
+    @Transactional
+    public void collectGarbage() {
+        int deleted = blobRepository.deleteUnreferenced();
+        if (deleted > 0) {
+            log.info("Removed {} unreferenced audit blobs", deleted);
+        }
+    }
+
+    // Null when the body is kept inline on the audit row
+    private String storeBlob(String body) {
+        if (body == null) {
+            return null;
+        }
+        byte[] raw = body.getBytes(StandardCharsets.UTF_8);
+        if (raw.length < dedupMinBytes) {
+            return null;
+        }
+        String hash = sha256(raw);
+
+        referenceTransaction.executeWithoutResult(status -> {
+            // Seen recently: bump the reference without shipping the body again. If the blob
+            // was collected in the meantime the update misses and we fall through to the insert.
+            if (recentHashes.contains(hash) && blobRepository.incrementRefCount(hash) > 0) {
+                return;
+            }
+            AuditLog.BodyCodec blobCodec = codec.codecFor(raw.length);
+            byte[] content = blobCodec == AuditLog.BodyCodec.NONE ? raw : codec.encode(body, blobCodec);
+            blobRepository.insertOrIncrement(hash, blobCodec.name(), content, raw.length);
+        });
+        recentHashes.add(hash);
+        releaseOnRollback(hash);
+        return hash;
+    }
+
+    // The reference is already committed; if the audit row never is, it must not keep the blob alive
+    private void releaseOnRollback(String hash) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_ROLLED_BACK) {
+                    return;
+                }
+                try {
+                    referenceTransaction.executeWithoutResult(s -> blobRepository.decrementRefCount(hash));
+                } catch (RuntimeException e) {
+                    log.warn("Could not release audit blob {} after rollback: {}", hash, e.getMessage());
+                }
+            }
+        });
+    }
+
+    private String read(AuditLog auditLog, String hash, String text, byte[] compressed,
+                        Map<String, String> blobs) {
+        if (hash != null) {
+            return blobs.get(hash);
+        }
+        if (auditLog.getBodyCodec() != null && auditLog.getBodyCodec() != AuditLog.BodyCodec.NONE) {
+            return codec.decode(compressed, auditLog.getBodyCodec());
+        }
+        return text;
+    }
+
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+
+    private static String sha256(byte[] value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
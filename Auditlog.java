@@ -16,12 +16,20 @@ import java.time.LocalDateTime;
 public class AuditLog {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "audit_logs_seq")
+    @SequenceGenerator(name = "audit_logs_seq", sequenceName = "audit_logs_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
     private Long buttonId;
 
+    // Set on the per-step rows of a WORKFLOW execution
+    private Long parentAuditId;
+
+    // W3C trace id of the execution, for correlating with downstream services
+    @Column(length = 32)
+    private String traceId;
+
     @Column(nullable = false)
     private String executedBy;
 
@@ -38,6 +46,24 @@ public class AuditLog {
     @Column(columnDefinition = "TEXT")
     private String responseData;
 
+    // Set instead of requestPayload/responseData when bodyCodec is not NONE
+    @Column(columnDefinition = "bytea")
+    private byte[] requestPayloadCompressed;
+
+    @Column(columnDefinition = "bytea")
+    private byte[] responseDataCompressed;
+
+    @Column(length = 10)
+    @Enumerated(EnumType.STRING)
+    private BodyCodec bodyCodec = BodyCodec.NONE;
+
+    // References into audit_blobs when app.audit.dedup.enabled is on
+    @Column(length = 64)
+    private String requestPayloadHash;
+
+    @Column(length = 64)
+    private String responseDataHash;
+
     @Column(nullable = false)
     @Enumerated(EnumType.STRING)
     private ExecutionStatus status;
@@ -50,4 +76,8 @@ public class AuditLog {
     public enum ExecutionStatus {
         SUCCESS, FAILURE, TIMEOUT
     }
+
+    public enum BodyCodec {
+        NONE, GZIP
+    }
 }
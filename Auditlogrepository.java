@@ -1,6 +1,7 @@
 package com.example.controlpanel.repository;
 
 import com.example.controlpanel.entity.AuditLog;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -8,6 +9,6 @@ import java.util.List;
 
 @Repository
 public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
-    List<AuditLog> findByButtonIdOrderByExecutedAtDesc(Long buttonId);
+    List<AuditLog> findByButtonIdOrderByExecutedAtDesc(Long buttonId, Pageable pageable);
     List<AuditLog> findByExecutedByOrderByExecutedAtDesc(String executedBy);
 }
@@ -0,0 +1,29 @@
+package com.example.controlpanel.reactive;
+
+import com.example.controlpanel.entity.AuditLog;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+// Read-only R2DBC view of audit_logs without the request/response bodies
+@Table("audit_logs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditLogRow {
+
+    @Id
+    private Long id;
+    private Long buttonId;
+    private String executedBy;
+    private LocalDateTime executedAt;
+    private String traceId;
+    private String action;
+    private AuditLog.ExecutionStatus status;
+    private String errorMessage;
+    private Long executionTimeMs;
+}
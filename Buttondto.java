@@ -1,13 +1,21 @@
 package com.example.controlpanel.dto;
 
+import com.example.controlpanel.entity.AuditLog;
 import com.example.controlpanel.entity.ControlButton;
+import com.example.controlpanel.entity.CredentialProvider;
+import com.example.controlpanel.entity.ExecutionJob;
+import com.example.controlpanel.entity.Role;
+import com.example.controlpanel.service.ConnectionWarmer;
+import com.example.controlpanel.service.TargetHealthProber;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 public class ButtonDTO {
@@ -24,16 +32,17 @@ public class ButtonDTO {
         @NotNull(message = "Action type is required")
         private ControlButton.ActionType actionType;
 
-        @NotBlank(message = "Target endpoint is required")
+        // Required for REST_API_CALL, checked in the service
         private String targetEndpoint;
 
-        @NotNull(message = "HTTP method is required")
         private ControlButton.HttpMethod httpMethod;
 
         private Map<String, String> headers;
 
         private Map<String, Object> payloadParameters;
 
+        private String credentialProvider;
+
         @NotNull(message = "Expected output format is required")
         private ControlButton.OutputFormat expectedOutputFormat;
 
@@ -44,6 +53,12 @@ public class ButtonDTO {
         private Boolean previewEnabled;
 
         private String category;
+
+        private ControlButton.Priority priority;
+
+        private List<ControlButton.WorkflowStep> workflowSteps;
+
+        private List<String> responseProjection;
     }
 
     @Data
@@ -57,12 +72,19 @@ public class ButtonDTO {
         private ControlButton.HttpMethod httpMethod;
         private Map<String, String> headers;
         private Map<String, Object> payloadParameters;
+
+        private String credentialProvider;
         private ControlButton.OutputFormat expectedOutputFormat;
         private Boolean validationEnabled;
         private String validationSchema;
         private Boolean previewEnabled;
         private String category;
+        private ControlButton.Priority priority;
         private Boolean active;
+        private List<ControlButton.WorkflowStep> workflowSteps;
+        private List<String> responseProjection;
+        // Last known reachability of the target; null for workflows
+        private TargetHealthProber.Health targetStatus;
     }
 
     @Data
@@ -77,6 +99,8 @@ public class ButtonDTO {
         private ControlButton.HttpMethod httpMethod;
         private Map<String, String> headers;
         private Map<String, Object> payloadParameters;
+
+        private String credentialProvider;
         private ControlButton.OutputFormat expectedOutputFormat;
         private Boolean validationEnabled;
         private String validationSchema;
@@ -86,7 +110,10 @@ public class ButtonDTO {
         private LocalDateTime updatedAt;
         private LocalDateTime lastExecutedAt;
         private String category;
+        private ControlButton.Priority priority;
         private Boolean active;
+        private List<ControlButton.WorkflowStep> workflowSteps;
+        private List<String> responseProjection;
     }
 
     @Data
@@ -95,6 +122,26 @@ public class ButtonDTO {
     public static class ExecuteButtonRequest {
         private Map<String, Object> inputParameters;
         private Boolean isPreview;
+        // Run as a job: the call returns 202 with the job right away
+        private Boolean async;
+        // Optional, async only: receives the finished job as a POST
+        private String callbackUrl;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class JobResponse {
+        private String id;
+        private Long buttonId;
+        private ExecutionJob.Status status;
+        private Integer attempts;
+        private LocalDateTime createdAt;
+        private LocalDateTime startedAt;
+        private LocalDateTime finishedAt;
+        private LocalDateTime expiresAt;
+        private ExecuteButtonResponse result;
+        private String errorMessage;
     }
 
     @Data
@@ -106,5 +153,233 @@ public class ButtonDTO {
         private Object data;
         private Integer statusCode;
         private Long executionTimeMs;
+        private String resultHandle;
+        private Long resultSizeBytes;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ImportResult {
+        private long total;
+        private long created;
+        private long updated;
+        private long failed;
+        private List<ImportError> errors;
+        private boolean errorsTruncated;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ImportError {
+        private long line;
+        private String message;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class HostConcurrency {
+        private String host;
+        private int limit;
+        private int inFlight;
+        private double shortRttMs;
+        private double longRttMs;
+        private long rejected;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TargetHealth {
+        private String host;
+        private TargetHealthProber.Health status;
+        private int consecutiveFailures;
+        private Instant lastCheckedAt;
+        private Long latencyMs;
+        private String lastError;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class HostWarmth {
+        private String host;
+        private ConnectionWarmer.Warmth status;
+        private int buttons;
+        private Instant lastWarmedAt;
+        private Instant lastUsedAt;
+        private Long warmupMs;
+        private String lastError;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class UserRequest {
+        // Required when creating a user; omitted to keep the current one
+        private String password;
+
+        private Boolean enabled;
+
+        private List<String> roles;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class UserResponse {
+        private String username;
+        private Boolean enabled;
+        private List<String> roles;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RoleRequest {
+        @NotNull(message = "Grants are required")
+        private List<Role.Grant> grants;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RoleResponse {
+        private String name;
+        private List<Role.Grant> grants;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CredentialProviderRequest {
+        @NotNull(message = "Type is required")
+        private CredentialProvider.Type type;
+
+        // Defaults to Authorization
+        private String headerName;
+
+        private String staticValue;
+
+        private String tokenUrl;
+
+        private String clientId;
+
+        // Omitted on update to keep the stored secret
+        private String clientSecret;
+
+        private String scope;
+    }
+
+    // Secrets are never returned
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CredentialProviderResponse {
+        private String name;
+        private CredentialProvider.Type type;
+        private String headerName;
+        private String tokenUrl;
+        private String clientId;
+        private String scope;
+        private boolean secretConfigured;
+        private Instant tokenRefreshAt;
+        private Instant tokenExpiresAt;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LaneStats {
+        private ControlButton.Priority priority;
+        private int weight;
+        private int queued;
+        private int capacity;
+        private int running;
+        private long completed;
+        private long rejected;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RecordingInfo {
+        private long id;
+        private String name;
+        private String state;
+        private Instant startTime;
+        private Long durationSeconds;
+        private String file;
+        private long sizeBytes;
+    }
+
+    // Buttons changed since the client's cursor plus every current id, so deletions show as missing ids
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ButtonChanges {
+        // ISO local date-time, passed back as since
+        private String cursor;
+        private boolean incremental;
+        private List<ButtonResponse> changed;
+        private List<Long> ids;
+        private Map<Long, TargetHealthProber.Health> targetStatuses;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ResultPage {
+        private String handle;
+        private long from;
+        private List<Object> items;
+        private boolean hasMore;
+        private long totalBytes;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class WorkflowStepResult {
+        private String stepId;
+        private Long buttonId;
+        private String status;
+        private Integer statusCode;
+        private Long executionTimeMs;
+        private String message;
+        private Object data;
+        private Map<String, Object> outputs;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ButtonSearchHit {
+        private Long id;
+        private String label;
+        private String icon;
+        private String category;
+        private String targetEndpoint;
+        private ControlButton.HttpMethod httpMethod;
+        private int score;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AuditLogResponse {
+        private Long id;
+        private Long buttonId;
+        private String executedBy;
+        private LocalDateTime executedAt;
+        private String traceId;
+        private String action;
+        private String requestPayload;
+        private String responseData;
+        private AuditLog.ExecutionStatus status;
+        private String errorMessage;
+        private Long executionTimeMs;
     }
 }
@@ -0,0 +1,357 @@
+package com.example.controlpanel.service;
+
+import com.example.controlpanel.dto.ButtonDTO;
+import com.example.controlpanel.dto.RawJson;
+import com.example.controlpanel.entity.AuditLog;
+import com.example.controlpanel.entity.ControlButton;
+import com.example.controlpanel.repository.AuditLogRepository;
+import com.example.controlpanel.profiling.ExecutionEvents;
+import com.example.controlpanel.repository.ControlButtonRepository;
+import com.example.controlpanel.tracing.Tracer;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import jakarta.annotation.PostConstruct;
+import okhttp3.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+// Executes a single REST_API_CALL button and writes its audit row
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ButtonExecutor {
+
+    private final ControlButtonRepository buttonRepository;
+    private final AuditLogRepository auditLogRepository;
+    private final ObjectMapper objectMapper;
+    private final AuditBodyStore auditBodyStore;
+    private final JsonProjector jsonProjector;
+    private final XmlResponseReader xmlResponseReader;
+    private final ResultSpool resultSpool;
+    private final Tracer tracer;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final PriorityExecutionScheduler executionScheduler;
+    private final CredentialManager credentialManager;
+    private final ConnectionWarmer connectionWarmer;
+    private final TargetHealthProber targetHealth;
+    private final ErrorLogSampler errorLogSampler;
+    // AppConfig.targetHttpClient; its pool is kept warm by ConnectionWarmer
+    private final OkHttpClient httpClient;
+    private OkHttpClient backgroundClient;
+    private ObjectWriter mapWriter;
+
+    @Value("${app.jobs.read-timeout:PT30M}")
+    private Duration backgroundReadTimeout;
+
+    @PostConstruct
+    void init() {
+        // Shares the connection pool; only the read timeout differs
+        backgroundClient = httpClient.newBuilder().readTimeout(backgroundReadTimeout).build();
+        // Serializer lookups resolved once instead of per call
+        mapWriter = objectMapper.writerFor(Map.class);
+    }
+
+    public ButtonDTO.ExecuteButtonResponse execute(ControlButton button, Map<String, Object> inputParams,
+                                                   boolean preview, String currentUser, Long parentAuditId) {
+        return execute(button, inputParams, preview, currentUser, parentAuditId, false);
+    }
+
+    // Background executions (async jobs) allow a long read timeout
+    public ButtonDTO.ExecuteButtonResponse execute(ControlButton button, Map<String, Object> inputParams,
+                                                   boolean preview, String currentUser, Long parentAuditId,
+                                                   boolean background) {
+        long startTime = System.currentTimeMillis();
+        Tracer.Span span = tracer.startSpan("button.execute")
+                .setAttribute("button.id", button.getId())
+                .setAttribute("preview", preview);
+        ExecutionEvents.Execution event = new ExecutionEvents.Execution();
+        event.begin();
+
+        AuditLog auditLog = new AuditLog();
+        auditLog.setButtonId(button.getId());
+        auditLog.setExecutedBy(currentUser);
+        auditLog.setAction(button.getHttpMethod().toString() + " " + button.getTargetEndpoint());
+        auditLog.setParentAuditId(parentAuditId);
+        auditLog.setTraceId(span.getTraceId());
+
+        try {
+            // Prepare request
+            String requestBody = convertMapToJson(inputParams);
+            auditLog.setRequestPayload(requestBody);
+            if (event.isEnabled() && hasRequestBody(button)) {
+                event.bytesOut = requestBody.getBytes(StandardCharsets.UTF_8).length;
+            }
+
+            // Execute API call
+            Response response;
+            try (Tracer.Span httpSpan = tracer.startSpan("http.client")) {
+                httpSpan.setAttribute("http.method", button.getHttpMethod().name());
+                httpSpan.setAttribute("http.url", button.getTargetEndpoint());
+                httpSpan.setAttribute("priority", button.getPriority().name());
+                try {
+                    if (targetHealth.checkBeforeCall(button.getTargetEndpoint())) {
+                        httpSpan.setAttribute("target.reported_down", true);
+                    }
+                    response = executionScheduler.execute(button.getPriority(),
+                            () -> callTarget(button, inputParams, httpSpan, background));
+                } catch (IOException | RuntimeException e) {
+                    httpSpan.recordError(e);
+                    throw e;
+                }
+                httpSpan.setAttribute("http.status_code", response.code());
+                event.statusCode = response.code();
+                if (!response.isSuccessful()) {
+                    httpSpan.markError("HTTP " + response.code());
+                }
+            }
+            long executionTime = System.currentTimeMillis() - startTime;
+
+            ButtonDTO.ExecuteButtonResponse executeResponse = new ButtonDTO.ExecuteButtonResponse();
+            executeResponse.setSuccess(response.isSuccessful());
+            executeResponse.setStatusCode(response.code());
+            executeResponse.setExecutionTimeMs(executionTime);
+            executeResponse.setMessage(response.isSuccessful() ? "Execution successful" : "Execution failed");
+
+            String responseBody;
+            if (isProjected(button, response)) {
+                // Only the projected fields are materialized, returned and audited
+                try (ResponseBody body = response.body()) {
+                    event.bytesIn = Math.max(0, body.contentLength());
+                    Map<String, Object> projection = button.getExpectedOutputFormat() == ControlButton.OutputFormat.XML
+                            ? xmlResponseReader.project(body.byteStream(), button.getResponseProjection())
+                            : jsonProjector.project(body.byteStream(), button.getResponseProjection());
+                    executeResponse.setData(projection);
+                    responseBody = mapWriter.writeValueAsString(projection);
+                } catch (JsonProcessingException | XMLStreamException e) {
+                    executeResponse.setMessage("Execution successful, response could not be projected: " + e.getMessage());
+                    responseBody = "";
+                }
+            } else {
+                ResultSpool.Capture capture = capture(response, currentUser);
+                responseBody = capture.inline();
+                event.bytesIn = capture.sizeBytes();
+
+                if (capture.spooled() != null) {
+                    // Too large to hold in heap: the client pages through it via the result handle
+                    ResultSpool.SpoolEntry spooled = capture.spooled();
+                    executeResponse.setResultHandle(spooled.handle());
+                    executeResponse.setResultSizeBytes(spooled.sizeBytes());
+                    responseBody = "[spooled result " + spooled.handle() + ", " + spooled.sizeBytes() + " bytes]";
+                } else if (button.getExpectedOutputFormat() == ControlButton.OutputFormat.JSON && !responseBody.isEmpty()) {
+                    // Valid JSON is passed through as is rather than parsed into maps and written again
+                    executeResponse.setData(isSingleJsonValue(responseBody) ? new RawJson(responseBody) : responseBody);
+                } else if (button.getExpectedOutputFormat() == ControlButton.OutputFormat.XML && !responseBody.isEmpty()) {
+                    try {
+                        executeResponse.setData(xmlResponseReader.read(new StringReader(responseBody)));
+                    } catch (XMLStreamException e) {
+                        executeResponse.setData(responseBody);
+                    }
+                } else {
+                    executeResponse.setData(responseBody);
+                }
+            }
+
+            // Update audit log
+            auditLog.setResponseData(responseBody);
+            auditLog.setStatus(response.isSuccessful() ? AuditLog.ExecutionStatus.SUCCESS : AuditLog.ExecutionStatus.FAILURE);
+            auditLog.setExecutionTimeMs(executionTime);
+
+            if (!response.isSuccessful()) {
+                auditLog.setErrorMessage("HTTP " + response.code() + ": " + response.message());
+            }
+
+            // Update button last executed time; workflow steps (with a parent audit row) run on
+            // copies, and the workflow records it for all of them once its steps have joined
+            if (!preview && parentAuditId == null) {
+                button.setLastExecutedAt(LocalDateTime.now());
+                buttonRepository.save(button);
+            }
+
+            return executeResponse;
+
+        } catch (Exception e) {
+            long executionTime = System.currentTimeMillis() - startTime;
+            errorLogSampler.error(log, button.getId(), "Error executing button", e);
+
+            auditLog.setStatus(AuditLog.ExecutionStatus.FAILURE);
+            auditLog.setErrorMessage(e.getMessage());
+            auditLog.setExecutionTimeMs(executionTime);
+            span.recordError(e);
+
+            ButtonDTO.ExecuteButtonResponse errorResponse = new ButtonDTO.ExecuteButtonResponse();
+            errorResponse.setSuccess(false);
+            errorResponse.setMessage("Execution failed: " + e.getMessage());
+            errorResponse.setExecutionTimeMs(executionTime);
+            if (e instanceof AdaptiveConcurrencyLimiter.ConcurrencyLimitExceededException
+                    || e instanceof PriorityExecutionScheduler.LaneFullException
+                    || e instanceof TargetHealthProber.TargetDownException) {
+                // Shed before reaching the target
+                errorResponse.setStatusCode(503);
+            }
+
+            return errorResponse;
+
+        } finally {
+            try (Tracer.Span auditSpan = tracer.startSpan("audit.write")) {
+                auditBodyStore.writeBodies(auditLog, auditLog.getRequestPayload(), auditLog.getResponseData());
+                auditLogRepository.save(auditLog);
+            }
+            span.setAttribute("status", String.valueOf(auditLog.getStatus()));
+            span.close();
+            commit(event, button, preview, auditLog);
+        }
+    }
+
+    // Runs on a scheduler worker
+    private Response callTarget(ControlButton button, Map<String, Object> inputParams, Tracer.Span httpSpan,
+                                boolean background) throws IOException {
+        httpSpan.setAttribute("queue.wait_ms", PriorityExecutionScheduler.currentQueueWaitMs());
+        // Resolved before taking a permit: a token endpoint failure says nothing about the target
+        CredentialManager.Header credential = button.getCredentialProvider() != null
+                ? credentialManager.header(button.getCredentialProvider())
+                : null;
+        AdaptiveConcurrencyLimiter.Permit permit = concurrencyLimiter.acquire(button.getTargetEndpoint());
+        Response response;
+        try {
+            response = executeApiCall(button, inputParams, httpSpan, credential, background ? backgroundClient : httpClient);
+        } catch (IOException e) {
+            permit.releaseDropped();
+            targetHealth.recordFailure(button.getTargetEndpoint(), e);
+            throw e;
+        } catch (RuntimeException e) {
+            permit.releaseDropped();
+            throw e;
+        }
+        connectionWarmer.recordUse(button.getTargetEndpoint());
+        targetHealth.recordResponse(button.getTargetEndpoint());
+        if (response.code() == 401 && button.getCredentialProvider() != null) {
+            // Likely revoked or rotated early; don't keep sending it
+            credentialManager.invalidate(button.getCredentialProvider());
+        }
+        if (background) {
+            permit.releaseUnsampled();
+        } else {
+            // RTT is measured to the response headers
+            permit.release(response.code() == 429 || response.code() == 503);
+        }
+        return response;
+    }
+
+    private void commit(ExecutionEvents.Execution event, ControlButton button, boolean preview, AuditLog auditLog) {
+        event.end();
+        if (event.shouldCommit()) {
+            HttpUrl url = HttpUrl.parse(button.getTargetEndpoint());
+            event.buttonId = button.getId();
+            event.targetHost = url != null ? url.host() : null;
+            event.httpMethod = button.getHttpMethod().name();
+            event.status = String.valueOf(auditLog.getStatus());
+            event.preview = preview;
+            event.traceId = auditLog.getTraceId();
+            event.commit();
+        }
+    }
+
+    private static boolean hasRequestBody(ControlButton button) {
+        return button.getHttpMethod() == ControlButton.HttpMethod.POST
+                || button.getHttpMethod() == ControlButton.HttpMethod.PUT;
+    }
+
+    private ResultSpool.Capture capture(Response response, String currentUser) throws IOException {
+        if (response.body() == null) {
+            return new ResultSpool.Capture("", null, 0);
+        }
+        try (ResponseBody body = response.body()) {
+            return resultSpool.capture(body.byteStream(), currentUser);
+        }
+    }
+
+    private boolean isProjected(ControlButton button, Response response) {
+        return response.isSuccessful()
+                && response.body() != null
+                && button.getExpectedOutputFormat() != ControlButton.OutputFormat.PLAIN_TEXT
+                && button.getResponseProjection() != null
+                && !button.getResponseProjection().isEmpty();
+    }
+
+    private Response executeApiCall(ControlButton button, Map<String, Object> inputParams, Tracer.Span span,
+                                    CredentialManager.Header credential, OkHttpClient client) throws IOException {
+        Request.Builder requestBuilder = new Request.Builder();
+        
+        // Add headers
+        if (button.getHeaders() != null && !button.getHeaders().isEmpty()) {
+            button.getHeaders().forEach(requestBuilder::addHeader);
+        }
+        // Downstream spans become children of the outbound call
+        requestBuilder.header(Tracer.TRACEPARENT, span.traceparent());
+        if (credential != null) {
+            requestBuilder.header(credential.name(), credential.value());
+        }
+
+        String url = button.getTargetEndpoint();
+        RequestBody body = null;
+
+        // Prepare request body for POST/PUT
+        if (hasRequestBody(button)) {
+            
+            MediaType mediaType = MediaType.parse("application/json; charset=utf-8");
+            String jsonBody = convertMapToJson(inputParams);
+            body = RequestBody.create(jsonBody, mediaType);
+        }
+
+        // Build request based on HTTP method
+        switch (button.getHttpMethod()) {
+            case GET:
+                requestBuilder.url(url).get();
+                break;
+            case POST:
+                requestBuilder.url(url).post(body);
+                break;
+            case PUT:
+                requestBuilder.url(url).put(body);
+                break;
+            case DELETE:
+                requestBuilder.url(url).delete();
+                break;
+        }
+
+        Request request = requestBuilder.build();
+        return client.newCall(request).execute();
+    }
+
+    // Streams the tokens without building objects; raw output must be exactly one well-formed value
+    private boolean isSingleJsonValue(String body) {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() == null) {
+                return false;
+            }
+            parser.skipChildren();
+            return parser.nextToken() == null;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private String convertMapToJson(Map<String, ?> map) {
+        if (map == null || map.isEmpty()) {
+            return "{}";
+        }
+        try {
+            return mapWriter.writeValueAsString(map);
+        } catch (JsonProcessingException e) {
+            log.error("Error converting map to JSON", e);
+            return "{}";
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.controlpanel.service;
+
+import com.example.controlpanel.dto.ButtonDTO;
+import com.example.controlpanel.entity.ControlButton;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+
+// The one ButtonResponse mapping, shared by the JPA and the reactive read paths
+@Component
+@RequiredArgsConstructor
+public class ButtonMapper {
+
+    private final TargetHealthProber targetHealth;
+
+    public ButtonDTO.ButtonResponse toResponse(ControlButton button) {
+        ButtonDTO.ButtonResponse response = new ButtonDTO.ButtonResponse();
+        response.setId(button.getId());
+        response.setLabel(button.getLabel());
+        response.setIcon(button.getIcon());
+        response.setActionType(button.getActionType());
+        response.setTargetEndpoint(button.getTargetEndpoint());
+        response.setHttpMethod(button.getHttpMethod());
+        response.setHeaders(button.getHeaders() != null ? new HashMap<>(button.getHeaders()) : new HashMap<>());
+        response.setPayloadParameters(button.getPayloadParameters() != null ? new HashMap<>(button.getPayloadParameters()) : new HashMap<>());
+        response.setCredentialProvider(button.getCredentialProvider());
+        response.setExpectedOutputFormat(button.getExpectedOutputFormat());
+        response.setValidationEnabled(button.getValidationEnabled());
+        response.setValidationSchema(button.getValidationSchema());
+        response.setPreviewEnabled(button.getPreviewEnabled());
+        response.setCreatedBy(button.getCreatedBy());
+        response.setCreatedAt(button.getCreatedAt());
+        response.setUpdatedAt(button.getUpdatedAt());
+        response.setLastExecutedAt(button.getLastExecutedAt());
+        response.setCategory(button.getCategory());
+        response.setPriority(button.getPriority());
+        response.setActive(button.getActive());
+        response.setWorkflowSteps(button.getWorkflowSteps());
+        response.setResponseProjection(button.getResponseProjection());
+        if (button.getActionType() == ControlButton.ActionType.REST_API_CALL) {
+            response.setTargetStatus(targetHealth.statusOf(button.getTargetEndpoint()));
+        }
+        return response;
+    }
+}
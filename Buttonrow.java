@@ -0,0 +1,42 @@
+package com.example.controlpanel.reactive;
+
+import com.example.controlpanel.entity.ControlButton;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+// Read-only R2DBC view of control_buttons; JSONB columns are selected as text
+@Table("control_buttons")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ButtonRow {
+
+    @Id
+    private Long id;
+    private String label;
+    private String icon;
+    private ControlButton.ActionType actionType;
+    private String targetEndpoint;
+    private ControlButton.HttpMethod httpMethod;
+    private String headers;
+    private String payloadParameters;
+    private String credentialProvider;
+    private ControlButton.OutputFormat expectedOutputFormat;
+    private Boolean validationEnabled;
+    private String validationSchema;
+    private Boolean previewEnabled;
+    private String createdBy;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime lastExecutedAt;
+    private String category;
+    private ControlButton.Priority priority;
+    private Boolean active;
+    private String workflowSteps;
+    private String responseProjection;
+}
@@ -0,0 +1,167 @@
+package com.example.controlpanel.service;
+
+import com.example.controlpanel.dto.ButtonDTO;
+import com.example.controlpanel.entity.ControlButton;
+import com.example.controlpanel.repository.ControlButtonRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// Typeahead index over active buttons. Tokens live in a sorted map so a prefix
+// query is one range scan; a button costs one document plus a posting per token.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ButtonSearchIndex {
+
+    private static final int LABEL_WEIGHT = 4;
+    private static final int CATEGORY_WEIGHT = 2;
+    private static final int ENDPOINT_WEIGHT = 1;
+
+    private final ControlButtonRepository buttonRepository;
+
+    private final ConcurrentSkipListMap<String, Set<Long>> postings = new ConcurrentSkipListMap<>();
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        postings.clear();
+        documents.clear();
+        buttonRepository.findByActiveTrue().forEach(this::index);
+        log.info("Button search index built with {} buttons and {} tokens", documents.size(), postings.size());
+    }
+
+    public synchronized void index(ControlButton button) {
+        remove(button.getId());
+        if (!Boolean.TRUE.equals(button.getActive())) {
+            return;
+        }
+
+        Document document = new Document(button.getId(), button.getLabel(), button.getIcon(),
+                button.getCategory(), button.getTargetEndpoint(), button.getHttpMethod(),
+                tokenize(button.getLabel()), tokenize(button.getCategory()), tokenize(button.getTargetEndpoint()));
+        documents.put(document.id, document);
+        for (String token : document.allTokens()) {
+            postings.computeIfAbsent(token, t -> ConcurrentHashMap.newKeySet()).add(document.id);
+        }
+    }
+
+    public synchronized void remove(Long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        for (String token : document.allTokens()) {
+            postings.computeIfPresent(token, (t, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    public List<ButtonDTO.ButtonSearchHit> search(String query, int limit) {
+        String[] terms = tokenize(query);
+        if (terms.length == 0 || limit <= 0) {
+            return List.of();
+        }
+
+        // Every query term must prefix-match some token of the button
+        Set<Long> candidates = null;
+        for (String term : terms) {
+            Set<Long> matches = new HashSet<>();
+            prefixRange(term).values().forEach(matches::addAll);
+            if (candidates == null) {
+                candidates = matches;
+            } else {
+                candidates.retainAll(matches);
+            }
+            if (candidates.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        String normalizedQuery = String.join(" ", terms);
+        PriorityQueue<ButtonDTO.ButtonSearchHit> top = new PriorityQueue<>(
+                Comparator.comparingInt(ButtonDTO.ButtonSearchHit::getScore)
+                        .thenComparing(ButtonDTO.ButtonSearchHit::getId, Comparator.reverseOrder()));
+        for (Long id : candidates) {
+            Document document = documents.get(id);
+            if (document == null) {
+                continue;
+            }
+            top.offer(document.toHit(score(document, terms, normalizedQuery)));
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+
+        List<ButtonDTO.ButtonSearchHit> hits = new ArrayList<>(top);
+        hits.sort(top.comparator().reversed());
+        return hits;
+    }
+
+    private ConcurrentNavigableMap<String, Set<Long>> prefixRange(String prefix) {
+        return postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private int score(Document document, String[] terms, String normalizedQuery) {
+        int score = 0;
+        for (String term : terms) {
+            score += LABEL_WEIGHT * fieldScore(document.labelTokens, term)
+                    + CATEGORY_WEIGHT * fieldScore(document.categoryTokens, term)
+                    + ENDPOINT_WEIGHT * fieldScore(document.endpointTokens, term);
+        }
+        // Favour labels that read like the query, e.g. "rest" -> "Restart Service"
+        if (document.label != null && document.label.toLowerCase(Locale.ROOT).startsWith(normalizedQuery)) {
+            score += 2 * LABEL_WEIGHT;
+        }
+        return score;
+    }
+
+    private int fieldScore(String[] tokens, String term) {
+        int best = 0;
+        for (String token : tokens) {
+            if (token.equals(term)) {
+                return 3;
+            }
+            if (token.startsWith(term)) {
+                best = 1;
+            }
+        }
+        return best;
+    }
+
+    static String[] tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return new String[0];
+        }
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .toArray(String[]::new);
+    }
+
+    private record Document(Long id, String label, String icon, String category, String targetEndpoint,
+                            ControlButton.HttpMethod httpMethod,
+                            String[] labelTokens, String[] categoryTokens, String[] endpointTokens) {
+
+        Set<String> allTokens() {
+            Set<String> tokens = new HashSet<>();
+            Collections.addAll(tokens, labelTokens);
+            Collections.addAll(tokens, categoryTokens);
+            Collections.addAll(tokens, endpointTokens);
+            return tokens;
+        }
+
+        ButtonDTO.ButtonSearchHit toHit(int score) {
+            return new ButtonDTO.ButtonSearchHit(id, label, icon, category, targetEndpoint, httpMethod, score);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.controlpanel.service;
+
+import com.example.controlpanel.dto.ButtonDTO;
+import com.example.controlpanel.entity.ControlButton;
+import com.example.controlpanel.entity.Role;
+import com.example.controlpanel.repository.ControlButtonRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// NDJSON bulk import/export of button configurations. Import validates line by line and
+// upserts in chunks, each chunk in its own transaction with one JDBC batch per chunk.
+// Export streams rows through a database cursor so memory stays flat.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ButtonTransferService {
+
+    private final ControlButtonRepository buttonRepository;
+    private final ControlButtonService buttonService;
+    private final PermissionService permissionService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.bulk.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.bulk.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    public ButtonDTO.ImportResult importButtons(InputStream ndjson) throws IOException {
+        // Exported lines carry read-only fields (createdAt, createdBy, ...) that import ignores
+        ObjectReader lineReader = objectMapper.reader().without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        String currentUser = buttonService.getCurrentUser();
+        ButtonDTO.ImportResult result = new ButtonDTO.ImportResult();
+        result.setErrors(new ArrayList<>());
+
+        List<ImportLine> chunk = new ArrayList<>(batchSize);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8));
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            result.setTotal(result.getTotal() + 1);
+            try {
+                chunk.add(parseLine(lineReader, line, lineNumber));
+            } catch (IllegalArgumentException | IOException e) {
+                recordError(result, lineNumber, e.getMessage());
+                continue;
+            }
+            if (chunk.size() == batchSize) {
+                writeChunk(chunk, currentUser, result);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk, currentUser, result);
+        }
+
+        log.info("Imported buttons: {} created, {} updated, {} failed", result.getCreated(), result.getUpdated(), result.getFailed());
+        return result;
+    }
+
+    @Transactional(readOnly = true)
+    public void exportButtons(OutputStream out) throws IOException {
+        try (Stream<ControlButton> buttons = buttonRepository.streamAllOrderById();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            // Let the generator's buffer decide when bytes go out instead of flushing every row
+            ObjectWriter rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            generator.setRootValueSeparator(null);
+            Iterator<ControlButton> iterator = buttons.iterator();
+            while (iterator.hasNext()) {
+                ControlButton button = iterator.next();
+                rowWriter.writeValue(generator, buttonService.convertToResponse(button));
+                generator.writeRaw('\n');
+                // Rows are only needed once: keep the persistence context from growing
+                entityManager.detach(button);
+            }
+        }
+    }
+
+    private ImportLine parseLine(ObjectReader lineReader, String line, long lineNumber) throws IOException {
+        JsonNode node = lineReader.readTree(line);
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("Line is not a JSON object");
+        }
+        ButtonDTO.CreateButtonRequest request = lineReader.treeToValue(node, ButtonDTO.CreateButtonRequest.class);
+        Set<ConstraintViolation<ButtonDTO.CreateButtonRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+        // Build (and validate) the entity now so a bad line never reaches the batch
+        ControlButton button = new ControlButton();
+        buttonService.applyCreateRequest(button, request);
+        JsonNode id = node.get("id");
+        // The same line read for an existing button: only the fields it carries are applied
+        ButtonDTO.UpdateButtonRequest update = lineReader.treeToValue(node, ButtonDTO.UpdateButtonRequest.class);
+        return new ImportLine(lineNumber, id != null && id.canConvertToLong() ? id.asLong() : null, request, update, button);
+    }
+
+    // Lines with an id matching an existing button update it; everything else is created
+    private void writeChunk(List<ImportLine> chunk, String currentUser, ButtonDTO.ImportResult result) {
+        int[] counts = new int[2];
+        List<ImportLine> denied = new ArrayList<>();
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(chunk.size());
+                Set<Long> ids = chunk.stream().map(ImportLine::id).filter(Objects::nonNull).collect(Collectors.toSet());
+                Map<Long, ControlButton> existing = buttonRepository.findAllById(ids).stream()
+                        .collect(Collectors.toMap(ControlButton::getId, Function.identity()));
+
+                denied.clear();
+                List<ControlButton> buttons = new ArrayList<>(chunk.size());
+                for (ImportLine line : chunk) {
+                    ControlButton button = line.id() != null ? existing.get(line.id()) : null;
+                    // Updates need edit rights on the stored button, and every line on its category
+                    if ((button != null && !permissionService.isGranted(currentUser, Role.Permission.EDIT, button.getId(), button.getCategory()))
+                            || !permissionService.isGranted(currentUser, Role.Permission.EDIT, null, line.request().getCategory())) {
+                        denied.add(line);
+                        continue;
+                    }
+                    if (button != null) {
+                        buttonService.applyUpdateRequest(button, line.update());
+                        counts[1]++;
+                    } else {
+                        button = line.button();
+                        button.setCreatedBy(currentUser);
+                        button.setActive(true);
+                        counts[0]++;
+                    }
+                    buttons.add(button);
+                }
+                buttonService.afterSave(buttonRepository.saveAll(buttons));
+                entityManager.flush();
+                entityManager.clear();
+            });
+        } catch (RuntimeException e) {
+            log.warn("Import chunk starting at line {} failed: {}", chunk.get(0).lineNumber(), e.getMessage());
+            chunk.forEach(line -> recordError(result, line.lineNumber(), "Batch write failed: " + e.getMessage()));
+            return;
+        }
+
+        denied.forEach(line -> recordError(result, line.lineNumber(), "EDIT is not granted to " + currentUser));
+        result.setCreated(result.getCreated() + counts[0]);
+        result.setUpdated(result.getUpdated() + counts[1]);
+    }
+
+    private void recordError(ButtonDTO.ImportResult result, long lineNumber, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < maxReportedErrors) {
+            result.getErrors().add(new ButtonDTO.ImportError(lineNumber, message));
+        } else {
+            result.setErrorsTruncated(true);
+        }
+    }
+
+    private record ImportLine(long lineNumber, Long id, ButtonDTO.CreateButtonRequest request,
+                              ButtonDTO.UpdateButtonRequest update, ControlButton button) {
+    }
+}
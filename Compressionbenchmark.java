@@ -0,0 +1,99 @@
+package com.example.controlpanel.benchmark;
+
+import com.example.controlpanel.entity.AuditLog;
+import com.example.controlpanel.service.AuditBodyCodec;
+
+import java.nio.charset.StandardCharsets;
+
+// Size and CPU trade-off of compression: bytes on the wire for a gzip-negotiated response and
+// bytes on disk for an audit body stored with app.audit.compression=GZIP, against the time
+// spent compressing and decompressing. Bodies are JSON item arrays as targets return them, and
+// the button list. Runs as a single source file against the compiled classes (see
+// compression-benchmark.sh):
+//
+//   java -cp target/classes:<dependencies> -Dbuttons=200 -Dseconds=3 Compressionbenchmark.java
+public class CompressionBenchmark {
+
+    @FunctionalInterface
+    interface Task {
+        Object run() throws Exception;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int buttons = Integer.getInteger("buttons", 200);
+        int seconds = Integer.getInteger("seconds", 3);
+        AuditBodyCodec codec = new AuditBodyCodec();
+
+        System.out.printf("%-22s %11s %11s %7s %13s %13s%n",
+                "body", "raw bytes", "gzip bytes", "ratio", "encode MB/s", "decode MB/s");
+        report("button list (" + buttons + ")", buttonList(buttons), codec, seconds);
+        for (int size : new int[]{1024, 16 * 1024, 256 * 1024, 4 * 1024 * 1024}) {
+            report("items " + size / 1024 + " KB", items(size), codec, seconds);
+        }
+        System.out.println();
+        System.out.println("Responses below server.compression.min-response-size and audit bodies below");
+        System.out.println("app.audit.compression-threshold are sent and stored as they are.");
+    }
+
+    private static void report(String name, String body, AuditBodyCodec codec, int seconds) throws Exception {
+        byte[] raw = body.getBytes(StandardCharsets.UTF_8);
+        // The audit codec and Tomcat's response compression both use GZIPOutputStream defaults
+        byte[] compressed = codec.encode(body, AuditLog.BodyCodec.GZIP);
+        double encode = measure(seconds, () -> codec.encode(body, AuditLog.BodyCodec.GZIP)) * raw.length;
+        double decode = measure(seconds, () -> codec.decode(compressed, AuditLog.BodyCodec.GZIP)) * raw.length;
+        System.out.printf("%-22s %11d %11d %6.1fx %13.1f %13.1f%n", name, raw.length, compressed.length,
+                (double) raw.length / compressed.length, encode / (1024 * 1024), decode / (1024 * 1024));
+    }
+
+    // Operations per second after a warm-up, so the JIT has compiled the path before it is timed
+    private static double measure(int seconds, Task task) throws Exception {
+        long warmUntil = System.nanoTime() + 1_000_000_000L;
+        while (System.nanoTime() < warmUntil) {
+            task.run();
+        }
+        long ops = 0;
+        long start = System.nanoTime();
+        long end = start + seconds * 1_000_000_000L;
+        long now;
+        do {
+            task.run();
+            ops++;
+            now = System.nanoTime();
+        } while (now < end);
+        return ops / ((now - start) / 1e9);
+    }
+
+    // The same shape as the load test stub: an array of small objects, padded to about bytes
+    private static String items(int bytes) {
+        StringBuilder json = new StringBuilder("{\"items\":[");
+        int i = 0;
+        while (json.length() < bytes - 64) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(i).append(",\"name\":\"item-").append(i)
+                    .append("\",\"status\":\"").append(i % 7 == 0 ? "degraded" : "ok").append("\"}");
+            i++;
+        }
+        return json.append("]}").toString();
+    }
+
+    // GET /buttons as it is serialized, written by hand to keep Jackson out of the timing
+    private static String buttonList(int count) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(i).append(",\"label\":\"Button ").append(i)
+                    .append("\",\"icon\":\"play_arrow\",\"actionType\":\"REST_API_CALL\",\"targetEndpoint\":\"https://service-")
+                    .append(i % 10).append(".internal/api/v1/actions/").append(i)
+                    .append("\",\"httpMethod\":\"POST\",\"headers\":{\"Accept\":\"application/json\",\"X-Team\":\"ops\"},")
+                    .append("\"payloadParameters\":{\"environment\":\"production\",\"dryRun\":false,\"retries\":3},")
+                    .append("\"expectedOutputFormat\":\"JSON\",\"validationEnabled\":false,\"previewEnabled\":true,")
+                    .append("\"createdBy\":\"admin\",\"createdAt\":\"2026-01-01T10:00:00\",\"category\":\"Category ")
+                    .append(i % 8).append("\",\"priority\":\"NORMAL\",\"active\":true,\"targetStatus\":\"UP\"}");
+        }
+        return json.append(']').toString();
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.controlpanel.service;
+
+import com.example.controlpanel.dto.ButtonDTO;
+import com.example.controlpanel.entity.ControlButton;
+import com.example.controlpanel.repository.ControlButtonRepository;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+// Keeps connections to the targets of active buttons open so the first click after startup
+// or an idle period skips DNS, TCP and TLS setup. Warming sends min-connections concurrent
+// lightweight requests per origin through the shared target client, which leaves that many
+// connections idle in its pool (one for HTTP/2, which multiplexes). OkHttp cannot pin
+// connections, so origins without recent traffic are re-warmed before the pool's keep-alive
+// evicts them. An origin is WARM while a call or warm-up succeeded within the keep-alive.
+@Component
+@Slf4j
+public class ConnectionWarmer {
+
+    private final ControlButtonRepository buttonRepository;
+    private final OkHttpClient warmupClient;
+
+    @Value("${app.warmup.enabled:true}")
+    private boolean enabled;
+
+    // Capped by the dispatcher's per-host request limit (5 by default)
+    @Value("${app.warmup.min-connections:2}")
+    private int minConnections;
+
+    @Value("${app.warmup.max-hosts:50}")
+    private int maxHosts;
+
+    // Sent to scheme://host:port of each target; HEAD keeps the response body empty
+    @Value("${app.warmup.method:HEAD}")
+    private String method;
+
+    @Value("${app.warmup.path:/}")
+    private String path;
+
+    @Value("${app.warmup.interval-ms:120000}")
+    private long intervalMs;
+
+    @Value("${app.http.pool.keep-alive:PT5M}")
+    private Duration keepAlive;
+
+    private final Map<String, HostState> hosts = new ConcurrentHashMap<>();
+
+    public ConnectionWarmer(ControlButtonRepository buttonRepository, OkHttpClient targetHttpClient,
+                            @Value("${app.warmup.timeout:PT5S}") Duration timeout) {
+        this.buttonRepository = buttonRepository;
+        // Shares the target client's pool and dispatcher; only the overall deadline differs
+        this.warmupClient = targetHttpClient.newBuilder().callTimeout(timeout).build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmActive() {
+        if (!enabled) {
+            return;
+        }
+        // Most recently used buttons first when there are more origins than max-hosts
+        List<ControlButton> buttons = buttonRepository.findByActiveTrue().stream()
+                .filter(button -> button.getActionType() == ControlButton.ActionType.REST_API_CALL)
+                .sorted(Comparator.comparing(ControlButton::getLastExecutedAt,
+                        Comparator.nullsLast(Comparator.reverseOrder())))
+                .toList();
+        Map<String, Integer> active = new LinkedHashMap<>();
+        for (ControlButton button : buttons) {
+            String origin = originOf(button.getTargetEndpoint());
+            if (origin != null && (active.containsKey(origin) || active.size() < maxHosts)) {
+                active.merge(origin, 1, Integer::sum);
+            }
+        }
+        hosts.keySet().retainAll(active.keySet());
+        active.forEach((origin, count) -> hosts.computeIfAbsent(origin, HostState::new).buttons = count);
+
+        Instant recent = Instant.now().minusMillis(intervalMs);
+        hosts.values().forEach(host -> {
+            // Real traffic already keeps the pool filled
+            Instant lastUsed = host.lastUsedAt;
+            if (lastUsed == null || lastUsed.isBefore(recent)) {
+                warm(host);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.warmup.interval-ms:120000}", initialDelayString = "${app.warmup.interval-ms:120000}")
+    public void rewarm() {
+        warmActive();
+    }
+
+    // Called after a button is created or changed; returns without waiting for the connections
+    public void warm(ControlButton button) {
+        if (!enabled || !Boolean.TRUE.equals(button.getActive())
+                || button.getActionType() != ControlButton.ActionType.REST_API_CALL) {
+            return;
+        }
+        String origin = originOf(button.getTargetEndpoint());
+        if (origin == null) {
+            return;
+        }
+        HostState host = hosts.computeIfAbsent(origin, HostState::new);
+        if (host.buttons == 0) {
+            host.buttons = 1;
+        }
+        warm(host);
+    }
+
+    // A completed target call proves a live pooled connection to the origin
+    public void recordUse(String url) {
+        String origin = originOf(url);
+        HostState host = origin != null ? hosts.get(origin) : null;
+        if (host != null) {
+            host.lastUsedAt = Instant.now();
+        }
+    }
+
+    public List<ButtonDTO.HostWarmth> getStatus() {
+        Instant warmSince = Instant.now().minus(keepAlive);
+        return hosts.values().stream()
+                .map(host -> {
+                    Instant lastSuccess = latest(host.lastWarmedAt, host.lastUsedAt);
+                    Warmth warmth = lastSuccess != null && lastSuccess.isAfter(warmSince) ? Warmth.WARM : Warmth.COLD;
+                    return new ButtonDTO.HostWarmth(host.origin, warmth, host.buttons, host.lastWarmedAt,
+                            host.lastUsedAt, host.warmupMs, host.lastError);
+                })
+                .sorted(Comparator.comparing(ButtonDTO.HostWarmth::getHost))
+                .collect(Collectors.toList());
+    }
+
+    private void warm(HostState host) {
+        if (!host.warming.compareAndSet(false, true)) {
+            return;
+        }
+        Request request = new Request.Builder()
+                .url(host.origin + path)
+                .method(method, null)
+                .header("User-Agent", "control-panel-warmup")
+                .build();
+        int connections = Math.max(1, minConnections);
+        long startNanos = System.nanoTime();
+        AtomicInteger pending = new AtomicInteger(connections);
+        AtomicBoolean succeeded = new AtomicBoolean();
+        for (int i = 0; i < connections; i++) {
+            // Enqueued concurrently so each call opens its own connection
+            warmupClient.newCall(request).enqueue(new Callback() {
+                @Override
+                public void onResponse(Call call, Response response) {
+                    // Any status counts: the connection is established and returned to the pool
+                    response.close();
+                    succeeded.set(true);
+                    done();
+                }
+
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    host.lastError = e.getMessage();
+                    done();
+                }
+
+                private void done() {
+                    if (pending.decrementAndGet() > 0) {
+                        return;
+                    }
+                    if (succeeded.get()) {
+                        host.lastWarmedAt = Instant.now();
+                        host.warmupMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+                        host.lastError = null;
+                    } else {
+                        log.debug("Warm-up of {} failed: {}", host.origin, host.lastError);
+                    }
+                    host.warming.set(false);
+                }
+            });
+        }
+    }
+
+    private static Instant latest(Instant a, Instant b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || a.isAfter(b) ? a : b;
+    }
+
+    // Connections are pooled per scheme, host and port; the builder brackets IPv6 hosts
+    static String originOf(String url) {
+        HttpUrl parsed = url != null ? HttpUrl.parse(url) : null;
+        if (parsed == null) {
+            return null;
+        }
+        String root = new HttpUrl.Builder().scheme(parsed.scheme()).host(parsed.host()).port(parsed.port()).build().toString();
+        return root.substring(0, root.length() - 1);
+    }
+
+    public enum Warmth {
+        WARM, COLD
+    }
+
+    private static class HostState {
+        private final String origin;
+        private final AtomicBoolean warming = new AtomicBoolean();
+        private volatile int buttons;
+        private volatile Instant lastWarmedAt;
+        private volatile Instant lastUsedAt;
+        private volatile Long warmupMs;
+        private volatile String lastError;
+
+        HostState(String origin) {
+            this.origin = origin;
+        }
+    }
+}
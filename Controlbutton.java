@@ -4,20 +4,29 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 
 @Entity
 @Table(name = "control_buttons")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "controlButtons")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class ControlButton {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "control_buttons_seq")
+    @SequenceGenerator(name = "control_buttons_seq", sequenceName = "control_buttons_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -29,18 +38,23 @@ public class ControlButton {
     @Enumerated(EnumType.STRING)
     private ActionType actionType;
 
-    @Column(nullable = false)
+    // Not used by WORKFLOW buttons
     private String targetEndpoint;
 
-    @Column(nullable = false)
     @Enumerated(EnumType.STRING)
     private HttpMethod httpMethod;
 
-    @Column(columnDefinition = "TEXT")
-    private String headers;
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "jsonb")
+    private Map<String, String> headers;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "jsonb")
+    private Map<String, Object> payloadParameters;
 
-    @Column(columnDefinition = "TEXT")
-    private String payloadParameters;
+    // Name of a CredentialProvider whose header is added to every call
+    @Column(length = 100)
+    private String credentialProvider;
 
     @Column(nullable = false)
     @Enumerated(EnumType.STRING)
@@ -48,11 +62,21 @@ public class ControlButton {
 
     private Boolean validationEnabled = true;
 
-    @Column(columnDefinition = "TEXT")
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "jsonb")
     private String validationSchema;
 
     private Boolean previewEnabled = true;
 
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "jsonb")
+    private List<WorkflowStep> workflowSteps;
+
+    // JSON pointer / JSONPath expressions selecting what is kept from a JSON or XML response
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "jsonb")
+    private List<String> responseProjection;
+
     @Column(nullable = false)
     private String createdBy;
 
@@ -67,11 +91,16 @@ public class ControlButton {
 
     private String category;
 
+    // Scheduling lane for executions; CRITICAL clicks bypass bulk and background traffic
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Priority priority = Priority.NORMAL;
+
     @Column(nullable = false)
     private Boolean active = true;
 
     public enum ActionType {
-        REST_API_CALL
+        REST_API_CALL, WORKFLOW
     }
 
     public enum HttpMethod {
@@ -81,4 +110,21 @@ public class ControlButton {
     public enum OutputFormat {
         JSON, PLAIN_TEXT, XML
     }
+
+    public enum Priority {
+        CRITICAL, NORMAL, BACKGROUND
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class WorkflowStep {
+        private String id;
+        private Long buttonId;
+        private List<String> dependsOn;
+        // Values may reference "${input.name}" or "${<stepId>.<output>}"
+        private Map<String, Object> inputs;
+        // Output name -> JSON pointer into the step's response data, e.g. "/status/replicas"
+        private Map<String, String> outputs;
+    }
 }
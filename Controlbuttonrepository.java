@@ -1,10 +1,16 @@
 package com.example.controlpanel.repository;
 
 import com.example.controlpanel.entity.ControlButton;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ControlButtonRepository extends JpaRepository<ControlButton, Long> {
@@ -12,4 +18,49 @@ public interface ControlButtonRepository extends JpaRepository<ControlButton, Lo
     List<ControlButton> findByActiveTrue();
     List<ControlButton> findByCreatedByAndActiveTrue(String createdBy);
     List<ControlButton> findByCategory(String category);
+    boolean existsByCredentialProvider(String credentialProvider);
+    List<ControlButton> findByUpdatedAtGreaterThanEqual(LocalDateTime since);
+
+    @Query("SELECT b.id FROM ControlButton b ORDER BY b.id")
+    List<Long> findAllIds();
+
+    // Changes whenever a button is created, updated or deleted; drives the list ETag
+    @Query("SELECT COUNT(b) AS count, MAX(b.updatedAt) AS lastUpdated, COALESCE(SUM(b.id), 0) AS idSum FROM ControlButton b")
+    ListVersion findListVersion();
+
+    interface ListVersion {
+        long getCount();
+        LocalDateTime getLastUpdated();
+        long getIdSum();
+    }
+
+    // Cursor-backed read for bulk export; bypasses the second-level cache
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheMode", value = "IGNORE")
+    })
+    @Query("SELECT b FROM ControlButton b ORDER BY b.id")
+    Stream<ControlButton> streamAllOrderById();
+
+    // JSONB searches below are served by the GIN indexes declared in init.sql
+
+    @Query(value = "SELECT * FROM control_buttons WHERE control_button_has_header(headers, :name)",
+            nativeQuery = true)
+    List<ControlButton> findByHeaderName(@Param("name") String name);
+
+    @Query(value = "SELECT * FROM control_buttons WHERE headers @> CAST(:fragment AS jsonb)",
+            nativeQuery = true)
+    List<ControlButton> findByHeadersContaining(@Param("fragment") String jsonFragment);
+
+    @Query(value = "SELECT * FROM control_buttons WHERE payload_parameters @> CAST(:fragment AS jsonb)",
+            nativeQuery = true)
+    List<ControlButton> findByPayloadParametersContaining(@Param("fragment") String jsonFragment);
+
+    // Both forms of an ambiguous value, e.g. {"retries": 3} and {"retries": "3"}
+    @Query(value = "SELECT * FROM control_buttons WHERE payload_parameters @> CAST(:fragment AS jsonb) " +
+            "OR payload_parameters @> CAST(:alternative AS jsonb)",
+            nativeQuery = true)
+    List<ControlButton> findByPayloadParametersContainingEither(@Param("fragment") String jsonFragment,
+                                                                @Param("alternative") String alternative);
 }
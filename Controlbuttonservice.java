@@ -3,23 +3,30 @@ package com.example.controlpanel.service;
 import com.example.controlpanel.dto.ButtonDTO;
 import com.example.controlpanel.entity.AuditLog;
 import com.example.controlpanel.entity.ControlButton;
+import com.example.controlpanel.entity.Role;
 import com.example.controlpanel.repository.AuditLogRepository;
 import com.example.controlpanel.repository.ControlButtonRepository;
+import com.example.controlpanel.tracing.Tracer;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import okhttp3.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,33 +37,38 @@ public class ControlButtonService {
     private final ControlButtonRepository buttonRepository;
     private final AuditLogRepository auditLogRepository;
     private final ObjectMapper objectMapper;
-    private final OkHttpClient httpClient = new OkHttpClient.Builder()
-            .connectTimeout(10, TimeUnit.SECONDS)
-            .readTimeout(30, TimeUnit.SECONDS)
-            .writeTimeout(30, TimeUnit.SECONDS)
-            .build();
+    private final ButtonSearchIndex searchIndex;
+    private final AuditBodyStore auditBodyStore;
+    private final ButtonExecutor buttonExecutor;
+    private final WorkflowExecutor workflowExecutor;
+    private final JsonProjector jsonProjector;
+    private final ResultSpool resultSpool;
+    private final Tracer tracer;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final PriorityExecutionScheduler executionScheduler;
+    private final PermissionService permissionService;
+    private final ExecutionJobService jobService;
+    private final CredentialManager credentialManager;
+    private final ConnectionWarmer connectionWarmer;
+    private final TargetHealthProber targetHealth;
+    private final ButtonMapper buttonMapper;
+
+    // Longest a button write may take between setting updated_at and committing
+    @Value("${app.buttons.changes-overlap:PT30S}")
+    private Duration changesOverlap;
 
     @Transactional
     public ButtonDTO.ButtonResponse createButton(ButtonDTO.CreateButtonRequest request) {
         String currentUser = getCurrentUser();
-        
+        permissionService.check(Role.Permission.EDIT, null, request.getCategory());
+
         ControlButton button = new ControlButton();
-        button.setLabel(request.getLabel());
-        button.setIcon(request.getIcon());
-        button.setActionType(request.getActionType());
-        button.setTargetEndpoint(request.getTargetEndpoint());
-        button.setHttpMethod(request.getHttpMethod());
-        button.setHeaders(convertMapToJson(request.getHeaders()));
-        button.setPayloadParameters(convertMapToJson(request.getPayloadParameters()));
-        button.setExpectedOutputFormat(request.getExpectedOutputFormat());
-        button.setValidationEnabled(request.getValidationEnabled() != null ? request.getValidationEnabled() : true);
-        button.setValidationSchema(request.getValidationSchema());
-        button.setPreviewEnabled(request.getPreviewEnabled() != null ? request.getPreviewEnabled() : true);
+        applyCreateRequest(button, request);
         button.setCreatedBy(currentUser);
-        button.setCategory(request.getCategory());
         button.setActive(true);
 
         ControlButton savedButton = buttonRepository.save(button);
+        afterSave(List.of(savedButton));
         return convertToResponse(savedButton);
     }
 
@@ -64,25 +76,53 @@ public class ControlButtonService {
     public ButtonDTO.ButtonResponse updateButton(Long id, ButtonDTO.UpdateButtonRequest request) {
         ControlButton button = buttonRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Button not found with id: " + id));
+        permissionService.check(Role.Permission.EDIT, button);
 
-        if (request.getLabel() != null) button.setLabel(request.getLabel());
-        if (request.getIcon() != null) button.setIcon(request.getIcon());
-        if (request.getActionType() != null) button.setActionType(request.getActionType());
-        if (request.getTargetEndpoint() != null) button.setTargetEndpoint(request.getTargetEndpoint());
-        if (request.getHttpMethod() != null) button.setHttpMethod(request.getHttpMethod());
-        if (request.getHeaders() != null) button.setHeaders(convertMapToJson(request.getHeaders()));
-        if (request.getPayloadParameters() != null) button.setPayloadParameters(convertMapToJson(request.getPayloadParameters()));
-        if (request.getExpectedOutputFormat() != null) button.setExpectedOutputFormat(request.getExpectedOutputFormat());
-        if (request.getValidationEnabled() != null) button.setValidationEnabled(request.getValidationEnabled());
-        if (request.getValidationSchema() != null) button.setValidationSchema(request.getValidationSchema());
-        if (request.getPreviewEnabled() != null) button.setPreviewEnabled(request.getPreviewEnabled());
-        if (request.getCategory() != null) button.setCategory(request.getCategory());
-        if (request.getActive() != null) button.setActive(request.getActive());
+        if (request.getCategory() != null) {
+            // Moving a button requires edit rights on its new category too
+            permissionService.check(Role.Permission.EDIT, null, request.getCategory());
+        }
+        applyUpdateRequest(button, request);
 
         ControlButton updatedButton = buttonRepository.save(button);
+        afterSave(List.of(updatedButton));
         return convertToResponse(updatedButton);
     }
 
+    // Opaque version of everything getAllButtons returns, cheap enough to check on every poll
+    @Transactional(readOnly = true)
+    public String getButtonListVersion() {
+        ControlButtonRepository.ListVersion version = buttonRepository.findListVersion();
+        long lastUpdated = version.getLastUpdated() != null
+                ? version.getLastUpdated().toInstant(ZoneOffset.UTC).toEpochMilli() : 0;
+        return Long.toHexString(version.getCount()) + "-" + Long.toHexString(lastUpdated) + "-"
+                + Long.toHexString(version.getIdSum()) + "-" + Long.toHexString(targetHealth.statusHash());
+    }
+
+    // All buttons when since is null, otherwise those updated since the cursor. The window
+    // overlaps the cursor so rows committed late with an older timestamp are not missed.
+    @Transactional(readOnly = true)
+    public ButtonDTO.ButtonChanges getButtonChanges(LocalDateTime since) {
+        ControlButtonRepository.ListVersion version = buttonRepository.findListVersion();
+        List<ControlButton> changed = since != null
+                ? buttonRepository.findByUpdatedAtGreaterThanEqual(since.minus(changesOverlap))
+                : buttonRepository.findAll();
+        List<Long> ids = buttonRepository.findAllIds();
+        Map<Long, TargetHealthProber.Health> statuses = new HashMap<>();
+        if (since != null) {
+            // Reachability changes without touching the row, so it is sent for every button
+            for (ControlButton button : buttonRepository.findByActiveTrue()) {
+                if (button.getActionType() == ControlButton.ActionType.REST_API_CALL) {
+                    statuses.put(button.getId(), targetHealth.statusOf(button.getTargetEndpoint()));
+                }
+            }
+        }
+        String cursor = version.getLastUpdated() != null
+                ? DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(version.getLastUpdated()) : null;
+        return new ButtonDTO.ButtonChanges(cursor, since != null,
+                changed.stream().map(this::convertToResponse).collect(Collectors.toList()), ids, statuses);
+    }
+
     @Transactional(readOnly = true)
     public List<ButtonDTO.ButtonResponse> getAllButtons() {
         return buttonRepository.findAll().stream()
@@ -97,138 +137,135 @@ public class ControlButtonService {
         return convertToResponse(button);
     }
 
-    @Transactional
-    public void deleteButton(Long id) {
-        if (!buttonRepository.existsById(id)) {
-            throw new RuntimeException("Button not found with id: " + id);
+    public List<ButtonDTO.ButtonSearchHit> searchButtons(String query, int limit) {
+        return searchIndex.search(query, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ButtonDTO.ButtonResponse> searchByHeader(String name, String value) {
+        List<ControlButton> buttons = value == null
+                ? buttonRepository.findByHeaderName(name)
+                : buttonRepository.findByHeadersContaining(convertMapToJson(Map.of(name, value)));
+        return buttons.stream()
+                .map(this::convertToResponse)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public List<ButtonDTO.ButtonResponse> searchByPayloadParameter(String name, String value) {
+        // Query parameters are text, but stored values keep their JSON type: "3" and "true" have
+        // to match numbers and booleans too, so the value is tried as JSON and as a plain string
+        Object parsed = parseJsonValue(value);
+        String fragment = convertMapToJson(Map.of(name, parsed));
+        List<ControlButton> buttons = parsed instanceof String
+                ? buttonRepository.findByPayloadParametersContaining(fragment)
+                : buttonRepository.findByPayloadParametersContainingEither(fragment, convertMapToJson(Map.of(name, value)));
+        return buttons.stream()
+                .map(this::convertToResponse)
+                .collect(Collectors.toList());
+    }
+
+    private Object parseJsonValue(String value) {
+        try {
+            Object parsed = objectMapper.readValue(value, Object.class);
+            return parsed != null ? parsed : value;
+        } catch (JsonProcessingException e) {
+            return value;
         }
-        buttonRepository.deleteById(id);
     }
 
     @Transactional
-    public ButtonDTO.ExecuteButtonResponse executeButton(Long id, ButtonDTO.ExecuteButtonRequest request) {
-        long startTime = System.currentTimeMillis();
-        String currentUser = getCurrentUser();
-
+    public void deleteButton(Long id) {
         ControlButton button = buttonRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Button not found with id: " + id));
+        permissionService.check(Role.Permission.EDIT, button);
+        buttonRepository.delete(button);
+        afterCommit(() -> searchIndex.remove(id));
+    }
 
-        if (!button.getActive()) {
-            throw new RuntimeException("Button is inactive");
-        }
-
-        AuditLog auditLog = new AuditLog();
-        auditLog.setButtonId(id);
-        auditLog.setExecutedBy(currentUser);
-        auditLog.setAction(button.getHttpMethod().toString() + " " + button.getTargetEndpoint());
+    // Index and warm-up only see committed buttons, so a rollback leaves no phantom entries
+    void afterSave(List<ControlButton> buttons) {
+        afterCommit(() -> buttons.forEach(button -> {
+            searchIndex.index(button);
+            connectionWarmer.warm(button);
+        }));
+    }
 
-        try {
-            // Prepare request
-            Map<String, Object> inputParams = request.getInputParameters() != null ? 
-                    request.getInputParameters() : new HashMap<>();
-            
-            String requestBody = convertMapToJson(inputParams);
-            auditLog.setRequestPayload(requestBody);
-
-            // Execute API call
-            Response response = executeApiCall(button, inputParams);
-            long executionTime = System.currentTimeMillis() - startTime;
-
-            String responseBody = response.body() != null ? response.body().string() : "";
-            
-            ButtonDTO.ExecuteButtonResponse executeResponse = new ButtonDTO.ExecuteButtonResponse();
-            executeResponse.setSuccess(response.isSuccessful());
-            executeResponse.setStatusCode(response.code());
-            executeResponse.setExecutionTimeMs(executionTime);
-            executeResponse.setMessage(response.isSuccessful() ? "Execution successful" : "Execution failed");
-
-            // Parse response based on format
-            if (button.getExpectedOutputFormat() == ControlButton.OutputFormat.JSON && !responseBody.isEmpty()) {
-                try {
-                    executeResponse.setData(objectMapper.readValue(responseBody, Object.class));
-                } catch (Exception e) {
-                    executeResponse.setData(responseBody);
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
                 }
-            } else {
-                executeResponse.setData(responseBody);
-            }
-
-            // Update audit log
-            auditLog.setResponseData(responseBody);
-            auditLog.setStatus(response.isSuccessful() ? AuditLog.ExecutionStatus.SUCCESS : AuditLog.ExecutionStatus.FAILURE);
-            auditLog.setExecutionTimeMs(executionTime);
-
-            if (!response.isSuccessful()) {
-                auditLog.setErrorMessage("HTTP " + response.code() + ": " + response.message());
-            }
-
-            // Update button last executed time
-            if (!Boolean.TRUE.equals(request.getIsPreview())) {
-                button.setLastExecutedAt(LocalDateTime.now());
-                buttonRepository.save(button);
-            }
-
-            return executeResponse;
+            });
+        } else {
+            action.run();
+        }
+    }
 
-        } catch (Exception e) {
-            long executionTime = System.currentTimeMillis() - startTime;
-            log.error("Error executing button {}: {}", id, e.getMessage(), e);
+    @Transactional
+    public ButtonDTO.ExecuteButtonResponse executeButton(Long id, ButtonDTO.ExecuteButtonRequest request) {
+        String currentUser = getCurrentUser();
+        ControlButton button = findExecutableButton(id);
 
-            auditLog.setStatus(AuditLog.ExecutionStatus.FAILURE);
-            auditLog.setErrorMessage(e.getMessage());
-            auditLog.setExecutionTimeMs(executionTime);
+        Map<String, Object> inputParams = request.getInputParameters() != null ?
+                request.getInputParameters() : new HashMap<>();
+        boolean preview = Boolean.TRUE.equals(request.getIsPreview());
 
-            ButtonDTO.ExecuteButtonResponse errorResponse = new ButtonDTO.ExecuteButtonResponse();
-            errorResponse.setSuccess(false);
-            errorResponse.setMessage("Execution failed: " + e.getMessage());
-            errorResponse.setExecutionTimeMs(executionTime);
+        if (button.getActionType() == ControlButton.ActionType.WORKFLOW) {
+            return workflowExecutor.execute(button, inputParams, preview, currentUser);
+        }
+        return buttonExecutor.execute(button, inputParams, preview, currentUser, null);
+    }
 
-            return errorResponse;
+    // Same checks as executeButton; the call itself runs later as a job
+    @Transactional
+    public ButtonDTO.JobResponse submitButton(Long id, ButtonDTO.ExecuteButtonRequest request) {
+        ControlButton button = findExecutableButton(id);
+        Map<String, Object> inputParams = request.getInputParameters() != null ?
+                request.getInputParameters() : new HashMap<>();
+        return jobService.submit(button, inputParams, Boolean.TRUE.equals(request.getIsPreview()),
+                getCurrentUser(), request.getCallbackUrl());
+    }
 
-        } finally {
-            auditLogRepository.save(auditLog);
-        }
+    public ButtonDTO.JobResponse getJob(String jobId) {
+        return jobService.getJob(jobId, getCurrentUser());
     }
 
-    private Response executeApiCall(ControlButton button, Map<String, Object> inputParams) throws IOException {
-        Request.Builder requestBuilder = new Request.Builder();
-        
-        // Add headers
-        if (button.getHeaders() != null && !button.getHeaders().isEmpty()) {
-            Map<String, String> headers = convertJsonToMap(button.getHeaders());
-            headers.forEach(requestBuilder::addHeader);
+    private ControlButton findExecutableButton(Long id) {
+        ControlButton button;
+        try (Tracer.Span span = tracer.startSpan("db.lookup")) {
+            span.setAttribute("button.id", id);
+            button = buttonRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Button not found with id: " + id));
         }
 
-        String url = button.getTargetEndpoint();
-        RequestBody body = null;
+        // Steps of a WORKFLOW button also need EXECUTE; WorkflowExecutor checks them
+        permissionService.check(Role.Permission.EXECUTE, button);
 
-        // Prepare request body for POST/PUT
-        if (button.getHttpMethod() == ControlButton.HttpMethod.POST || 
-            button.getHttpMethod() == ControlButton.HttpMethod.PUT) {
-            
-            MediaType mediaType = MediaType.parse("application/json; charset=utf-8");
-            String jsonBody = convertMapToJson(inputParams);
-            body = RequestBody.create(jsonBody, mediaType);
+        if (!button.getActive()) {
+            throw new RuntimeException("Button is inactive");
         }
+        return button;
+    }
 
-        // Build request based on HTTP method
-        switch (button.getHttpMethod()) {
-            case GET:
-                requestBuilder.url(url).get();
-                break;
-            case POST:
-                requestBuilder.url(url).post(body);
-                break;
-            case PUT:
-                requestBuilder.url(url).put(body);
-                break;
-            case DELETE:
-                requestBuilder.url(url).delete();
-                break;
+    @Transactional(readOnly = true)
+    public List<ButtonDTO.AuditLogResponse> getAuditLogs(Long buttonId, int page, int size) {
+        if (page < 0 || size <= 0) {
+            throw new IllegalArgumentException("page must be >= 0 and size > 0");
         }
-
-        Request request = requestBuilder.build();
-        return httpClient.newCall(request).execute();
+        ControlButton button = buttonRepository.findById(buttonId)
+                .orElseThrow(() -> new RuntimeException("Button not found with id: " + buttonId));
+        // The history carries request and response bodies, so it needs the same grant as running the button
+        permissionService.check(Role.Permission.EXECUTE, button);
+        // Newest first, one page at a time: a busy button's full history is too large to load
+        List<AuditLog> auditLogs = auditLogRepository.findByButtonIdOrderByExecutedAtDesc(buttonId,
+                PageRequest.of(page, size));
+        Map<String, String> blobs = auditBodyStore.loadBlobs(auditLogs);
+        return auditLogs.stream()
+                .map(auditLog -> convertToAuditResponse(auditLog, blobs))
+                .collect(Collectors.toList());
     }
 
     private String convertMapToJson(Map<String, ?> map) {
@@ -243,56 +280,136 @@ public class ControlButtonService {
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private Map<String, String> convertJsonToMap(String json) {
-        if (json == null || json.isEmpty() || "{}".equals(json)) {
-            return new HashMap<>();
+    private void validateAction(ControlButton button) {
+        jsonProjector.validate(button.getResponseProjection());
+        if (button.getCredentialProvider() != null && !credentialManager.exists(button.getCredentialProvider())) {
+            throw new IllegalArgumentException("Unknown credential provider: " + button.getCredentialProvider());
         }
-        try {
-            return objectMapper.readValue(json, Map.class);
-        } catch (JsonProcessingException e) {
-            log.error("Error converting JSON to map", e);
-            return new HashMap<>();
+        if (button.getActionType() == ControlButton.ActionType.WORKFLOW) {
+            workflowExecutor.validate(button.getWorkflowSteps());
+            return;
+        }
+        if (button.getTargetEndpoint() == null || button.getTargetEndpoint().isBlank()) {
+            throw new IllegalArgumentException("Target endpoint is required");
+        }
+        if (button.getHttpMethod() == null) {
+            throw new IllegalArgumentException("HTTP method is required");
         }
     }
 
-    private ButtonDTO.ButtonResponse convertToResponse(ControlButton button) {
-        ButtonDTO.ButtonResponse response = new ButtonDTO.ButtonResponse();
-        response.setId(button.getId());
-        response.setLabel(button.getLabel());
-        response.setIcon(button.getIcon());
-        response.setActionType(button.getActionType());
-        response.setTargetEndpoint(button.getTargetEndpoint());
-        response.setHttpMethod(button.getHttpMethod());
-        response.setHeaders(convertJsonToMap(button.getHeaders()));
-        response.setPayloadParameters(convertJsonToObjectMap(button.getPayloadParameters()));
-        response.setExpectedOutputFormat(button.getExpectedOutputFormat());
-        response.setValidationEnabled(button.getValidationEnabled());
-        response.setValidationSchema(button.getValidationSchema());
-        response.setPreviewEnabled(button.getPreviewEnabled());
-        response.setCreatedBy(button.getCreatedBy());
-        response.setCreatedAt(button.getCreatedAt());
-        response.setUpdatedAt(button.getUpdatedAt());
-        response.setLastExecutedAt(button.getLastExecutedAt());
-        response.setCategory(button.getCategory());
-        response.setActive(button.getActive());
-        return response;
+    // Copies every field of a create request onto the button and validates the result
+    void applyCreateRequest(ControlButton button, ButtonDTO.CreateButtonRequest request) {
+        button.setLabel(request.getLabel());
+        button.setIcon(request.getIcon());
+        button.setActionType(request.getActionType());
+        button.setTargetEndpoint(request.getTargetEndpoint());
+        button.setHttpMethod(request.getHttpMethod());
+        button.setHeaders(request.getHeaders() != null ? request.getHeaders() : new HashMap<>());
+        button.setPayloadParameters(request.getPayloadParameters() != null ? request.getPayloadParameters() : new HashMap<>());
+        button.setCredentialProvider(blankToNull(request.getCredentialProvider()));
+        button.setExpectedOutputFormat(request.getExpectedOutputFormat());
+        button.setValidationEnabled(request.getValidationEnabled() != null ? request.getValidationEnabled() : true);
+        button.setValidationSchema(validateSchemaJson(request.getValidationSchema()));
+        button.setPreviewEnabled(request.getPreviewEnabled() != null ? request.getPreviewEnabled() : true);
+        button.setCategory(request.getCategory());
+        button.setPriority(request.getPriority() != null ? request.getPriority() : ControlButton.Priority.NORMAL);
+        button.setWorkflowSteps(request.getWorkflowSteps());
+        button.setResponseProjection(request.getResponseProjection());
+        validateAction(button);
     }
 
-    @SuppressWarnings("unchecked")
-    private Map<String, Object> convertJsonToObjectMap(String json) {
-        if (json == null || json.isEmpty() || "{}".equals(json)) {
-            return new HashMap<>();
+    // Only the fields present in the request change; shared with import lines for existing buttons
+    void applyUpdateRequest(ControlButton button, ButtonDTO.UpdateButtonRequest request) {
+        if (request.getLabel() != null) button.setLabel(request.getLabel());
+        if (request.getIcon() != null) button.setIcon(request.getIcon());
+        if (request.getActionType() != null) button.setActionType(request.getActionType());
+        if (request.getTargetEndpoint() != null) button.setTargetEndpoint(request.getTargetEndpoint());
+        if (request.getHttpMethod() != null) button.setHttpMethod(request.getHttpMethod());
+        if (request.getHeaders() != null) button.setHeaders(request.getHeaders());
+        if (request.getPayloadParameters() != null) button.setPayloadParameters(request.getPayloadParameters());
+        if (request.getCredentialProvider() != null) button.setCredentialProvider(blankToNull(request.getCredentialProvider()));
+        if (request.getExpectedOutputFormat() != null) button.setExpectedOutputFormat(request.getExpectedOutputFormat());
+        if (request.getValidationEnabled() != null) button.setValidationEnabled(request.getValidationEnabled());
+        if (request.getValidationSchema() != null) button.setValidationSchema(validateSchemaJson(request.getValidationSchema()));
+        if (request.getPreviewEnabled() != null) button.setPreviewEnabled(request.getPreviewEnabled());
+        if (request.getCategory() != null) button.setCategory(request.getCategory());
+        if (request.getPriority() != null) button.setPriority(request.getPriority());
+        if (request.getActive() != null) button.setActive(request.getActive());
+        if (request.getWorkflowSteps() != null) button.setWorkflowSteps(request.getWorkflowSteps());
+        if (request.getResponseProjection() != null) button.setResponseProjection(request.getResponseProjection());
+        validateAction(button);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    private String validateSchemaJson(String schema) {
+        if (schema == null || schema.isBlank()) {
+            return null;
         }
         try {
-            return objectMapper.readValue(json, Map.class);
+            objectMapper.readTree(schema);
+            return schema;
         } catch (JsonProcessingException e) {
-            log.error("Error converting JSON to object map", e);
-            return new HashMap<>();
+            throw new IllegalArgumentException("Validation schema must be valid JSON");
         }
     }
 
-    private String getCurrentUser() {
+    ButtonDTO.ButtonResponse convertToResponse(ControlButton button) {
+        return buttonMapper.toResponse(button);
+    }
+
+    private ButtonDTO.AuditLogResponse convertToAuditResponse(AuditLog auditLog, Map<String, String> blobs) {
+        ButtonDTO.AuditLogResponse response = new ButtonDTO.AuditLogResponse();
+        response.setId(auditLog.getId());
+        response.setButtonId(auditLog.getButtonId());
+        response.setExecutedBy(auditLog.getExecutedBy());
+        response.setExecutedAt(auditLog.getExecutedAt());
+        response.setTraceId(auditLog.getTraceId());
+        response.setAction(auditLog.getAction());
+        response.setRequestPayload(auditBodyStore.readRequestPayload(auditLog, blobs));
+        response.setResponseData(auditBodyStore.readResponseData(auditLog, blobs));
+        response.setStatus(auditLog.getStatus());
+        response.setErrorMessage(auditLog.getErrorMessage());
+        response.setExecutionTimeMs(auditLog.getExecutionTimeMs());
+        return response;
+    }
+
+    public List<ButtonDTO.HostConcurrency> getConcurrencyLimits() {
+        return concurrencyLimiter.getLimits();
+    }
+
+    public List<ButtonDTO.LaneStats> getLaneStats() {
+        return executionScheduler.getLaneStats();
+    }
+
+    public List<ButtonDTO.TargetHealth> getTargetHealth() {
+        return targetHealth.getStatus();
+    }
+
+    public List<ButtonDTO.HostWarmth> getConnectionWarmth() {
+        return connectionWarmer.getStatus();
+    }
+
+    public List<ButtonDTO.HostWarmth> warmConnections() {
+        connectionWarmer.warmActive();
+        return connectionWarmer.getStatus();
+    }
+
+    public Path getResultFile(String handle) {
+        return resultSpool.get(handle, getCurrentUser()).file();
+    }
+
+    public ButtonDTO.ResultPage getResultLines(String handle, long from, int count) {
+        return resultSpool.readLines(resultSpool.get(handle, getCurrentUser()), from, count);
+    }
+
+    public ButtonDTO.ResultPage getResultElements(String handle, long from, int count) {
+        return resultSpool.readElements(resultSpool.get(handle, getCurrentUser()), from, count);
+    }
+
+    String getCurrentUser() {
         try {
             return SecurityContextHolder.getContext().getAuthentication().getName();
         } catch (Exception e) {
@@ -1,9 +1,12 @@
 package com.example.controlpanel;
 
+import com.example.controlpanel.config.ControlPanelRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(ControlPanelRuntimeHints.class)
 public class ControlPanelApplication {
 
     public static void main(String[] args) {
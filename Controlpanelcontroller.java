@@ -1,14 +1,26 @@
 package com.example.controlpanel.controller;
 
 import com.example.controlpanel.dto.ButtonDTO;
+import com.example.controlpanel.service.ButtonTransferService;
 import com.example.controlpanel.service.ControlButtonService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -18,22 +30,88 @@ import java.util.List;
 @CrossOrigin(origins = "${app.cors.allowed-origins}")
 public class ControlPanelController {
 
+    private static final String NDJSON = "application/x-ndjson";
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final ControlButtonService buttonService;
+    private final ButtonTransferService transferService;
 
+    // Conditional on If-None-Match: an unchanged list costs one aggregate query and no body
     @GetMapping("/buttons")
-    public ResponseEntity<List<ButtonDTO.ButtonResponse>> getAllButtons() {
-        log.info("Fetching all control buttons");
+    public ResponseEntity<List<ButtonDTO.ButtonResponse>> getAllButtons(WebRequest webRequest) {
+        log.debug("Fetching all control buttons");
+        String etag = buttonService.getButtonListVersion();
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
+        }
         List<ButtonDTO.ButtonResponse> buttons = buttonService.getAllButtons();
-        return ResponseEntity.ok(buttons);
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(buttons);
+    }
+
+    // Incremental sync for cached clients; since is the cursor of their previous response
+    @GetMapping("/buttons/changes")
+    public ResponseEntity<ButtonDTO.ButtonChanges> getButtonChanges(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            WebRequest webRequest) {
+        String etag = buttonService.getButtonListVersion();
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(buttonService.getButtonChanges(since));
+    }
+
+    @GetMapping("/buttons/search")
+    public ResponseEntity<List<ButtonDTO.ButtonSearchHit>> searchButtons(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(buttonService.searchButtons(query, Math.min(limit, 100)));
+    }
+
+    @GetMapping("/buttons/search/header")
+    public ResponseEntity<List<ButtonDTO.ButtonResponse>> searchByHeader(
+            @RequestParam String name,
+            @RequestParam(required = false) String value) {
+        log.debug("Searching buttons by header: {}", name);
+        return ResponseEntity.ok(buttonService.searchByHeader(name, value));
+    }
+
+    @GetMapping("/buttons/search/parameter")
+    public ResponseEntity<List<ButtonDTO.ButtonResponse>> searchByPayloadParameter(
+            @RequestParam String name,
+            @RequestParam String value) {
+        log.debug("Searching buttons by payload parameter: {}", name);
+        return ResponseEntity.ok(buttonService.searchByPayloadParameter(name, value));
+    }
+
+    @PostMapping(value = "/buttons/import", consumes = NDJSON)
+    public ResponseEntity<ButtonDTO.ImportResult> importButtons(InputStream body) throws IOException {
+        log.info("Importing buttons");
+        return ResponseEntity.ok(transferService.importButtons(body));
+    }
+
+    @GetMapping(value = "/buttons/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportButtons() {
+        log.info("Exporting buttons");
+        StreamingResponseBody body = transferService::exportButtons;
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
     }
 
     @GetMapping("/button/{id}")
     public ResponseEntity<ButtonDTO.ButtonResponse> getButtonById(@PathVariable Long id) {
-        log.info("Fetching button with id: {}", id);
+        log.debug("Fetching button with id: {}", id);
         ButtonDTO.ButtonResponse button = buttonService.getButtonById(id);
         return ResponseEntity.ok(button);
     }
 
+    @GetMapping("/button/{id}/audit")
+    public ResponseEntity<List<ButtonDTO.AuditLogResponse>> getAuditLogs(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        log.debug("Fetching audit logs for button with id: {}", id);
+        return ResponseEntity.ok(buttonService.getAuditLogs(id, page, Math.min(size, 200)));
+    }
+
     @PostMapping("/button")
     public ResponseEntity<ButtonDTO.ButtonResponse> createButton(
             @Valid @RequestBody ButtonDTO.CreateButtonRequest request) {
@@ -59,11 +137,75 @@ public class ControlPanelController {
     }
 
     @PostMapping("/execute/{id}")
-    public ResponseEntity<ButtonDTO.ExecuteButtonResponse> executeButton(
+    public ResponseEntity<?> executeButton(
             @PathVariable Long id,
             @RequestBody ButtonDTO.ExecuteButtonRequest request) {
-        log.info("Executing button with id: {}", id);
+        if (Boolean.TRUE.equals(request.getAsync())) {
+            log.debug("Submitting job for button with id: {}", id);
+            ButtonDTO.JobResponse job = buttonService.submitButton(id, request);
+            return ResponseEntity.accepted()
+                    .location(ServletUriComponentsBuilder.fromCurrentContextPath()
+                            .path("/control-panel/jobs/{jobId}").buildAndExpand(job.getId()).toUri())
+                    .body(job);
+        }
+        log.debug("Executing button with id: {}", id);
         ButtonDTO.ExecuteButtonResponse response = buttonService.executeButton(id, request);
         return ResponseEntity.ok(response);
     }
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<ButtonDTO.JobResponse> getJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(buttonService.getJob(jobId));
+    }
+
+    // Current adaptive concurrency limit per target host
+    @GetMapping("/admin/concurrency")
+    public ResponseEntity<List<ButtonDTO.HostConcurrency>> getConcurrencyLimits() {
+        return ResponseEntity.ok(buttonService.getConcurrencyLimits());
+    }
+
+    @GetMapping("/admin/lanes")
+    public ResponseEntity<List<ButtonDTO.LaneStats>> getLaneStats() {
+        return ResponseEntity.ok(buttonService.getLaneStats());
+    }
+
+    @GetMapping("/admin/targets")
+    public ResponseEntity<List<ButtonDTO.TargetHealth>> getTargetHealth() {
+        return ResponseEntity.ok(buttonService.getTargetHealth());
+    }
+
+    @GetMapping("/admin/connections")
+    public ResponseEntity<List<ButtonDTO.HostWarmth>> getConnectionWarmth() {
+        return ResponseEntity.ok(buttonService.getConnectionWarmth());
+    }
+
+    // Starts a warm-up of all active targets; the returned status is from before it completes
+    @PostMapping("/admin/connections/warm")
+    public ResponseEntity<List<ButtonDTO.HostWarmth>> warmConnections() {
+        return ResponseEntity.ok(buttonService.warmConnections());
+    }
+
+    // Raw spooled result; Range headers are honoured for byte-range reads
+    @GetMapping("/result/{handle}")
+    public ResponseEntity<Resource> getResult(@PathVariable String handle) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(new FileSystemResource(buttonService.getResultFile(handle)));
+    }
+
+    @GetMapping("/result/{handle}/lines")
+    public ResponseEntity<ButtonDTO.ResultPage> getResultLines(
+            @PathVariable String handle,
+            @RequestParam(defaultValue = "0") long from,
+            @RequestParam(defaultValue = "100") int count) {
+        return ResponseEntity.ok(buttonService.getResultLines(handle, from, count));
+    }
+
+    @GetMapping("/result/{handle}/elements")
+    public ResponseEntity<ButtonDTO.ResultPage> getResultElements(
+            @PathVariable String handle,
+            @RequestParam(defaultValue = "0") long from,
+            @RequestParam(defaultValue = "100") int count) {
+        return ResponseEntity.ok(buttonService.getResultElements(handle, from, count));
+    }
 }
@@ -0,0 +1,38 @@
+package com.example.controlpanel.config;
+
+import com.example.controlpanel.dto.ButtonDTO;
+import com.example.controlpanel.dto.RawJson;
+import com.example.controlpanel.entity.AuditBlob;
+import com.example.controlpanel.entity.AuditLog;
+import com.example.controlpanel.entity.ControlButton;
+import com.example.controlpanel.tracing.SpanExporter;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+
+// Reflection and resource hints for the native-image build (mvn -Pnative native:compile)
+public class ControlPanelRuntimeHints implements RuntimeHintsRegistrar {
+
+    private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // Jackson: DTOs and the JSON-mapped entity columns
+        for (Class<?> type : ButtonDTO.class.getDeclaredClasses()) {
+            bindingRegistrar.registerReflectionHints(hints.reflection(), type);
+        }
+        bindingRegistrar.registerReflectionHints(hints.reflection(),
+                ControlButton.class, AuditLog.class, AuditBlob.class, SpanExporter.SpanData.class, RawJson.class);
+
+        // OkHttp loads the public suffix list from the classpath
+        hints.resources().registerPattern("okhttp3/internal/publicsuffix/*");
+
+        // Caffeine JCache provider and its configuration
+        hints.resources().registerPattern("application.conf");
+        hints.reflection().registerType(
+                TypeReference.of("com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider"),
+                MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+    }
+}
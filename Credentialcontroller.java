@@ -0,0 +1,44 @@
+package com.example.controlpanel.controller;
+
+import com.example.controlpanel.dto.ButtonDTO;
+import com.example.controlpanel.service.CredentialManager;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+// Named credential providers that buttons reference for their outbound auth header
+@RestController
+@RequestMapping("/control-panel/admin/credentials")
+@PreAuthorize("hasRole('ADMIN')")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "${app.cors.allowed-origins}")
+public class CredentialController {
+
+    private final CredentialManager credentialManager;
+
+    @GetMapping
+    public ResponseEntity<List<ButtonDTO.CredentialProviderResponse>> getProviders() {
+        return ResponseEntity.ok(credentialManager.getProviders());
+    }
+
+    @PutMapping("/{name}")
+    public ResponseEntity<ButtonDTO.CredentialProviderResponse> saveProvider(
+            @PathVariable String name,
+            @Valid @RequestBody ButtonDTO.CredentialProviderRequest request) {
+        log.info("Saving credential provider: {}", name);
+        return ResponseEntity.ok(credentialManager.saveProvider(name, request));
+    }
+
+    @DeleteMapping("/{name}")
+    public ResponseEntity<Void> deleteProvider(@PathVariable String name) {
+        log.info("Deleting credential provider: {}", name);
+        credentialManager.deleteProvider(name);
+        return ResponseEntity.noContent().build();
+    }
+}
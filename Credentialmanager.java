@@ -0,0 +1,349 @@
+package com.example.controlpanel.service;
+
+import com.example.controlpanel.dto.ButtonDTO;
+import com.example.controlpanel.entity.CredentialProvider;
+import com.example.controlpanel.repository.ControlButtonRepository;
+import com.example.controlpanel.repository.CredentialProviderRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+// Supplies the credential header for buttons that reference a CredentialProvider. OAuth2
+// client-credentials tokens are cached in memory and shared by every button using the
+// provider. They are refreshed in the background once app.credentials.refresh-ahead-ratio
+// of their lifetime has passed, and concurrent refreshes of one provider share a single
+// token request. Callers only wait when there is no unexpired token at all.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CredentialManager {
+
+    private static final Pattern SECRET_REFERENCE = Pattern.compile("\\$\\{([^}]*)}");
+    private static final Pattern ENV_NAME = Pattern.compile("[A-Za-z0-9_]+");
+
+    private final CredentialProviderRepository providerRepository;
+    private final ControlButtonRepository buttonRepository;
+    private final ObjectMapper objectMapper;
+
+    // Stored secrets may only reference environment variables with this prefix
+    @Value("${app.credentials.secret-env-prefix:CP_SECRET_}")
+    private String secretEnvPrefix;
+
+    @Value("${app.credentials.refresh-ahead-ratio:0.75}")
+    private double refreshAheadRatio;
+
+    // Used when the token response has no expires_in
+    @Value("${app.credentials.default-token-lifetime:PT5M}")
+    private Duration defaultTokenLifetime;
+
+    @Value("${app.credentials.retry-backoff:PT10S}")
+    private Duration retryBackoff;
+
+    @Value("${app.credentials.token-timeout:PT10S}")
+    private Duration tokenTimeout;
+
+    private final Map<String, Token> tokens = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Token>> refreshes = new ConcurrentHashMap<>();
+    private final Map<String, Instant> nextAttempt = new ConcurrentHashMap<>();
+    private final ExecutorService refresher = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "credential-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile Map<String, CredentialProvider> providers = Map.of();
+    private OkHttpClient tokenClient;
+
+    @PostConstruct
+    void init() {
+        tokenClient = new OkHttpClient.Builder()
+                .connectTimeout(tokenTimeout)
+                .readTimeout(tokenTimeout)
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.credentials.reload-interval-ms:60000}")
+    public void reload() {
+        Map<String, CredentialProvider> loaded = providerRepository.findAll().stream()
+                .collect(Collectors.toUnmodifiableMap(CredentialProvider::getName, Function.identity()));
+        Map<String, CredentialProvider> previous = providers;
+        providers = loaded;
+        // Tokens of changed or removed providers must not outlive their definition
+        previous.forEach((name, provider) -> {
+            CredentialProvider current = loaded.get(name);
+            if (current == null || !Objects.equals(current.getUpdatedAt(), provider.getUpdatedAt())) {
+                tokens.remove(name);
+            }
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    public boolean exists(String name) {
+        return providers.containsKey(name) || providerRepository.findByName(name).isPresent();
+    }
+
+    public Header header(String name) {
+        CredentialProvider provider = providers.get(name);
+        if (provider == null) {
+            reload();
+            provider = providers.get(name);
+            if (provider == null) {
+                throw new RuntimeException("Credential provider not found: " + name);
+            }
+        }
+        if (provider.getType() == CredentialProvider.Type.STATIC) {
+            return new Header(provider.getHeaderName(), resolve(provider.getStaticValue()));
+        }
+
+        Instant now = Instant.now();
+        Token token = tokens.get(name);
+        if (token != null && now.isBefore(token.expiresAt())) {
+            if (!now.isBefore(token.refreshAt())) {
+                refreshUnlessBackingOff(provider, now);
+            }
+            return new Header(provider.getHeaderName(), token.headerValue());
+        }
+        try {
+            // No usable token: wait for the shared request, never longer than the token timeout
+            return new Header(provider.getHeaderName(),
+                    refresh(provider).get(tokenTimeout.toMillis(), TimeUnit.MILLISECONDS).headerValue());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while obtaining credentials from provider " + name);
+        } catch (ExecutionException | TimeoutException e) {
+            Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+            throw new RuntimeException("Could not obtain credentials from provider " + name + ": " + cause.getMessage());
+        }
+    }
+
+    // The target rejected the credential; the next call fetches a new one
+    public void invalidate(String name) {
+        tokens.remove(name);
+    }
+
+    @Scheduled(fixedDelayString = "${app.credentials.refresh-check-interval-ms:5000}")
+    public void refreshDue() {
+        Instant now = Instant.now();
+        tokens.forEach((name, token) -> {
+            CredentialProvider provider = providers.get(name);
+            if (provider == null) {
+                tokens.remove(name);
+            } else if (!now.isBefore(token.refreshAt())) {
+                refreshUnlessBackingOff(provider, now);
+            }
+        });
+    }
+
+    public List<ButtonDTO.CredentialProviderResponse> getProviders() {
+        return providerRepository.findAll().stream()
+                .sorted(Comparator.comparing(CredentialProvider::getName))
+                .map(this::convertToResponse)
+                .collect(Collectors.toList());
+    }
+
+    public ButtonDTO.CredentialProviderResponse saveProvider(String name, ButtonDTO.CredentialProviderRequest request) {
+        CredentialProvider provider = providerRepository.findByName(name).orElseGet(() -> {
+            CredentialProvider created = new CredentialProvider();
+            created.setName(name);
+            return created;
+        });
+        provider.setType(request.getType());
+        provider.setHeaderName(request.getHeaderName() != null && !request.getHeaderName().isBlank()
+                ? request.getHeaderName() : "Authorization");
+        provider.setStaticValue(request.getStaticValue());
+        provider.setTokenUrl(request.getTokenUrl());
+        provider.setClientId(request.getClientId());
+        // Omitted on update to keep the stored secret
+        if (request.getClientSecret() != null) {
+            provider.setClientSecret(request.getClientSecret());
+        }
+        provider.setScope(request.getScope());
+        validate(provider);
+
+        CredentialProvider saved = providerRepository.save(provider);
+        tokens.remove(name);
+        nextAttempt.remove(name);
+        reload();
+        return convertToResponse(saved);
+    }
+
+    public void deleteProvider(String name) {
+        CredentialProvider provider = providerRepository.findByName(name)
+                .orElseThrow(() -> new RuntimeException("Credential provider not found: " + name));
+        if (buttonRepository.existsByCredentialProvider(name)) {
+            throw new IllegalArgumentException("Credential provider " + name + " is still used by buttons");
+        }
+        providerRepository.delete(provider);
+        tokens.remove(name);
+        reload();
+    }
+
+    private void validate(CredentialProvider provider) {
+        if (provider.getType() == null) {
+            throw new IllegalArgumentException("Credential provider type is required");
+        }
+        if (provider.getType() == CredentialProvider.Type.STATIC) {
+            if (provider.getStaticValue() == null || provider.getStaticValue().isBlank()) {
+                throw new IllegalArgumentException("A STATIC provider needs a staticValue");
+            }
+            validateReferences(provider.getStaticValue());
+            return;
+        }
+        if (provider.getTokenUrl() == null || HttpUrl.parse(provider.getTokenUrl()) == null) {
+            throw new IllegalArgumentException("An OAUTH2_CLIENT_CREDENTIALS provider needs a valid tokenUrl");
+        }
+        if (provider.getClientId() == null || provider.getClientId().isBlank()
+                || provider.getClientSecret() == null || provider.getClientSecret().isBlank()) {
+            throw new IllegalArgumentException("An OAUTH2_CLIENT_CREDENTIALS provider needs a clientId and clientSecret");
+        }
+        validateReferences(provider.getClientSecret());
+    }
+
+    private void validateReferences(String value) {
+        Matcher matcher = SECRET_REFERENCE.matcher(value);
+        while (matcher.find()) {
+            String name = matcher.group(1);
+            if (!isSecretEnvName(name)) {
+                throw new IllegalArgumentException("Secrets may only reference environment variables starting with "
+                        + secretEnvPrefix + ", not ${" + name + "}");
+            }
+            if (System.getenv(name) == null) {
+                throw new IllegalArgumentException("Environment variable " + name + " is not set");
+            }
+        }
+    }
+
+    private void refreshUnlessBackingOff(CredentialProvider provider, Instant now) {
+        Instant notBefore = nextAttempt.get(provider.getName());
+        if (notBefore == null || !now.isBefore(notBefore)) {
+            refresh(provider);
+        }
+    }
+
+    // At most one token request per provider is in flight; everyone else joins it
+    private CompletableFuture<Token> refresh(CredentialProvider provider) {
+        String name = provider.getName();
+        CompletableFuture<Token> created = new CompletableFuture<>();
+        CompletableFuture<Token> inFlight = refreshes.putIfAbsent(name, created);
+        if (inFlight != null) {
+            return inFlight;
+        }
+        refresher.execute(() -> {
+            try {
+                Token token = fetch(provider);
+                tokens.put(name, token);
+                nextAttempt.remove(name);
+                created.complete(token);
+            } catch (RuntimeException e) {
+                log.warn("Token request for credential provider {} failed: {}", name, e.getMessage());
+                nextAttempt.put(name, Instant.now().plus(retryBackoff));
+                created.completeExceptionally(e);
+            } finally {
+                refreshes.remove(name, created);
+            }
+        });
+        return created;
+    }
+
+    private Token fetch(CredentialProvider provider) {
+        FormBody.Builder form = new FormBody.Builder().add("grant_type", "client_credentials");
+        if (provider.getScope() != null && !provider.getScope().isBlank()) {
+            form.add("scope", provider.getScope());
+        }
+        Request request = new Request.Builder()
+                .url(provider.getTokenUrl())
+                .header("Authorization", Credentials.basic(provider.getClientId(), resolve(provider.getClientSecret())))
+                .header("Accept", "application/json")
+                .post(form.build())
+                .build();
+
+        Instant issuedAt = Instant.now();
+        try (Response response = tokenClient.newCall(request).execute()) {
+            if (!response.isSuccessful() || response.body() == null) {
+                throw new IOException("token endpoint returned HTTP " + response.code());
+            }
+            JsonNode body = objectMapper.readTree(response.body().byteStream());
+            String accessToken = body.path("access_token").asText(null);
+            if (accessToken == null || accessToken.isEmpty()) {
+                throw new IOException("token response has no access_token");
+            }
+            String tokenType = body.path("token_type").asText("Bearer");
+            Duration lifetime = body.path("expires_in").canConvertToLong()
+                    ? Duration.ofSeconds(body.get("expires_in").asLong())
+                    : defaultTokenLifetime;
+            log.debug("Obtained token for credential provider {} valid for {}", provider.getName(), lifetime);
+            return new Token(("bearer".equalsIgnoreCase(tokenType) ? "Bearer" : tokenType) + " " + accessToken,
+                    issuedAt.plusMillis((long) (lifetime.toMillis() * refreshAheadRatio)),
+                    issuedAt.plus(lifetime));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Secrets may be kept out of the database as ${CP_SECRET_...} references. Values are
+    // written by API callers, so nothing else is expanded: no Spring properties, no nesting,
+    // and the resolved secret is inserted as is even when it contains "${".
+    private String resolve(String value) {
+        Matcher matcher = SECRET_REFERENCE.matcher(value);
+        StringBuilder resolved = new StringBuilder();
+        while (matcher.find()) {
+            String name = matcher.group(1);
+            String secret = isSecretEnvName(name) ? System.getenv(name) : null;
+            if (secret == null) {
+                throw new RuntimeException("Secret reference ${" + name + "} cannot be resolved");
+            }
+            matcher.appendReplacement(resolved, Matcher.quoteReplacement(secret));
+        }
+        matcher.appendTail(resolved);
+        return resolved.toString();
+    }
+
+    private boolean isSecretEnvName(String name) {
+        return name.startsWith(secretEnvPrefix) && ENV_NAME.matcher(name).matches();
+    }
+
+    private ButtonDTO.CredentialProviderResponse convertToResponse(CredentialProvider provider) {
+        Token token = tokens.get(provider.getName());
+        ButtonDTO.CredentialProviderResponse response = new ButtonDTO.CredentialProviderResponse();
+        response.setName(provider.getName());
+        response.setType(provider.getType());
+        response.setHeaderName(provider.getHeaderName());
+        response.setTokenUrl(provider.getTokenUrl());
+        response.setClientId(provider.getClientId());
+        response.setScope(provider.getScope());
+        response.setSecretConfigured(provider.getClientSecret() != null || provider.getStaticValue() != null);
+        response.setTokenExpiresAt(token != null ? token.expiresAt() : null);
+        response.setTokenRefreshAt(token != null ? token.refreshAt() : null);
+        return response;
+    }
+
+    public record Header(String name, String value) {
+    }
+
+    private record Token(String headerValue, Instant refreshAt, Instant expiresAt) {
+    }
+}
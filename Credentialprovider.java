@@ -0,0 +1,61 @@
+package com.example.controlpanel.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+// Named source of an outbound credential, referenced by buttons instead of a raw header value.
+// Secret fields may hold ${...} placeholders resolved from the environment at use time.
+@Entity
+@Table(name = "credential_providers")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CredentialProvider {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 100)
+    private String name;
+
+    @Column(nullable = false, length = 30)
+    @Enumerated(EnumType.STRING)
+    private Type type;
+
+    @Column(nullable = false, length = 100)
+    private String headerName = "Authorization";
+
+    // STATIC: the complete header value
+    @Column(length = 2000)
+    private String staticValue;
+
+    // OAUTH2_CLIENT_CREDENTIALS
+    @Column(length = 500)
+    private String tokenUrl;
+
+    private String clientId;
+
+    @Column(length = 500)
+    private String clientSecret;
+
+    @Column(length = 500)
+    private String scope;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+
+    public enum Type {
+        STATIC, OAUTH2_CLIENT_CREDENTIALS
+    }
+}
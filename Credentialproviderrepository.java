@@ -0,0 +1,12 @@
+package com.example.controlpanel.repository;
+
+import com.example.controlpanel.entity.CredentialProvider;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface CredentialProviderRepository extends JpaRepository<CredentialProvider, Long> {
+    Optional<CredentialProvider> findByName(String name);
+}
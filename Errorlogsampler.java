@@ -0,0 +1,73 @@
+package com.example.controlpanel.service;
+
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Rate-limits error logs that repeat per key (a button id). Within each window the first
+// per-window errors are logged, only the first with its stack trace; after that one in
+// sample-every is logged and the rest are counted. The first line of the next window reports
+// how many were suppressed. A target that is down then costs a few log lines per minute
+// instead of one stack trace per click.
+@Component
+public class ErrorLogSampler {
+
+    @Value("${app.logging.errors.window:PT1M}")
+    private Duration window;
+
+    @Value("${app.logging.errors.per-window:5}")
+    private int perWindow;
+
+    // 0 suppresses everything over per-window
+    @Value("${app.logging.errors.sample-every:100}")
+    private int sampleEvery;
+
+    private final Map<Object, Counter> counters = new ConcurrentHashMap<>();
+
+    public void error(Logger log, Object key, String message, Throwable error) {
+        if (!log.isErrorEnabled()) {
+            return;
+        }
+        long now = System.nanoTime();
+        int seen;
+        long suppressed = 0;
+        Counter counter = counters.computeIfAbsent(key, k -> new Counter(now));
+        synchronized (counter) {
+            if (now - counter.windowStart >= window.toNanos()) {
+                suppressed = counter.suppressed;
+                counter.windowStart = now;
+                counter.seen = 0;
+                counter.suppressed = 0;
+            }
+            seen = ++counter.seen;
+            boolean sampled = seen <= perWindow || (sampleEvery > 0 && (seen - perWindow) % sampleEvery == 0);
+            if (!sampled) {
+                counter.suppressed++;
+                return;
+            }
+        }
+
+        String suffix = suppressed > 0 ? " (" + suppressed + " similar errors suppressed in the previous window)" : "";
+        if (seen == 1) {
+            log.error("{} {}: {}{}", message, key, error.getMessage(), suffix, error);
+        } else if (seen <= perWindow) {
+            log.error("{} {}: {}{}", message, key, error.getMessage(), suffix);
+        } else {
+            log.error("{} {}: {} (sampled, error {} in this window)", message, key, error.getMessage(), seen);
+        }
+    }
+
+    private static class Counter {
+        private long windowStart;
+        private int seen;
+        private long suppressed;
+
+        Counter(long windowStart) {
+            this.windowStart = windowStart;
+        }
+    }
+}
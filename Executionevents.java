@@ -0,0 +1,67 @@
+package com.example.controlpanel.profiling;
+
+import jdk.jfr.*;
+
+// Custom JFR events for button executions. Disabled events cost a flag check, so they stay
+// compiled in; the "default" settings used by the continuous recording enable them.
+public final class ExecutionEvents {
+
+    private ExecutionEvents() {
+    }
+
+    @Name("com.example.controlpanel.ButtonExecution")
+    @Label("Button Execution")
+    @Category({"Control Panel", "Execution"})
+    @Description("One REST_API_CALL button execution, from request to audit write")
+    @StackTrace(false)
+    public static class Execution extends Event {
+        @Label("Button Id")
+        public long buttonId;
+
+        @Label("Target Host")
+        public String targetHost;
+
+        @Label("HTTP Method")
+        public String httpMethod;
+
+        @Label("Bytes Out")
+        @DataAmount
+        public long bytesOut;
+
+        @Label("Bytes In")
+        @DataAmount
+        public long bytesIn;
+
+        @Label("Status Code")
+        public int statusCode;
+
+        @Label("Status")
+        public String status;
+
+        @Label("Preview")
+        public boolean preview;
+
+        @Label("Trace Id")
+        public String traceId;
+    }
+
+    // Emitted for every tracing span, so phases line up with /control-panel/traces
+    @Name("com.example.controlpanel.ExecutionPhase")
+    @Label("Execution Phase")
+    @Category({"Control Panel", "Execution"})
+    @Description("A traced phase: request, button lookup, outbound HTTP call, audit write, workflow step")
+    @StackTrace(false)
+    public static class Phase extends Event {
+        @Label("Phase")
+        public String phase;
+
+        @Label("Status")
+        public String status;
+
+        @Label("Trace Id")
+        public String traceId;
+
+        @Label("Span Id")
+        public String spanId;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.controlpanel.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+// Asynchronous execution of a button; the row is the job's only state, so any node can run or recover it
+@Entity
+@Table(name = "execution_jobs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExecutionJob {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(nullable = false)
+    private Long buttonId;
+
+    @Column(nullable = false, length = 100)
+    private String submittedBy;
+
+    @Column(nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    private Status status;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "jsonb")
+    private Map<String, Object> inputParameters;
+
+    @Column(nullable = false)
+    private Boolean preview = false;
+
+    @Column(length = 500)
+    private String callbackUrl;
+
+    // Parent of the job's spans, so the run joins the submitting request's trace
+    @Column(length = 55)
+    private String traceparent;
+
+    // Node currently running the job and its last lease renewal
+    @Column(length = 36)
+    private String ownerNode;
+
+    private LocalDateTime heartbeatAt;
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    // Serialized ExecuteButtonResponse once the job has finished
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "jsonb")
+    private String result;
+
+    @Column(columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    private LocalDateTime expiresAt;
+
+    public enum Status {
+        QUEUED, RUNNING, SUCCEEDED, FAILED
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.controlpanel.repository;
+
+import com.example.controlpanel.entity.ExecutionJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+// State transitions are conditional updates, so two nodes can never both own a job.
+// Leases and expiry use the database clock only.
+@Repository
+public interface ExecutionJobRepository extends JpaRepository<ExecutionJob, String> {
+
+    @Query(value = "SELECT id FROM execution_jobs WHERE status = 'QUEUED' ORDER BY created_at LIMIT :limit",
+            nativeQuery = true)
+    List<String> findQueuedIds(@Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM execution_jobs WHERE status = 'RUNNING' " +
+            "AND heartbeat_at < now() - :leaseSeconds * INTERVAL '1 second'",
+            nativeQuery = true)
+    List<ExecutionJob> findStale(@Param("leaseSeconds") long leaseSeconds);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE execution_jobs SET status = 'RUNNING', owner_node = :node, started_at = now(), " +
+            "heartbeat_at = now(), attempts = attempts + 1 WHERE id = :id AND status = 'QUEUED'",
+            nativeQuery = true)
+    int claim(@Param("id") String id, @Param("node") String node);
+
+    // Hands a claimed job back when the local executor has no room for it
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE execution_jobs SET status = 'QUEUED', owner_node = NULL, attempts = attempts - 1 " +
+            "WHERE id = :id AND owner_node = :node AND status = 'RUNNING'",
+            nativeQuery = true)
+    int unclaim(@Param("id") String id, @Param("node") String node);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE execution_jobs SET heartbeat_at = now() " +
+            "WHERE id IN (:ids) AND owner_node = :node AND status = 'RUNNING'",
+            nativeQuery = true)
+    int heartbeat(@Param("ids") Collection<String> ids, @Param("node") String node);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE execution_jobs SET status = :status, result = CAST(:result AS jsonb), " +
+            "error_message = :error, finished_at = now(), expires_at = now() + :retentionSeconds * INTERVAL '1 second' " +
+            "WHERE id = :id AND owner_node = :node AND status = 'RUNNING'",
+            nativeQuery = true)
+    int complete(@Param("id") String id,
+                 @Param("node") String node,
+                 @Param("status") String status,
+                 @Param("result") String result,
+                 @Param("error") String error,
+                 @Param("retentionSeconds") long retentionSeconds);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE execution_jobs SET status = 'QUEUED', owner_node = NULL " +
+            "WHERE id = :id AND status = 'RUNNING' AND heartbeat_at < now() - :leaseSeconds * INTERVAL '1 second'",
+            nativeQuery = true)
+    int requeueStale(@Param("id") String id, @Param("leaseSeconds") long leaseSeconds);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE execution_jobs SET status = 'FAILED', error_message = :error, finished_at = now(), " +
+            "expires_at = now() + :retentionSeconds * INTERVAL '1 second' " +
+            "WHERE id = :id AND status = 'RUNNING' AND heartbeat_at < now() - :leaseSeconds * INTERVAL '1 second'",
+            nativeQuery = true)
+    int failStale(@Param("id") String id,
+                  @Param("leaseSeconds") long leaseSeconds,
+                  @Param("error") String error,
+                  @Param("retentionSeconds") long retentionSeconds);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM execution_jobs WHERE expires_at < now()", nativeQuery = true)
+    int deleteExpired();
+}
@@ -0,0 +1,337 @@
+package com.example.controlpanel.service;
+
+import com.example.controlpanel.dto.ButtonDTO;
+import com.example.controlpanel.entity.ControlButton;
+import com.example.controlpanel.entity.ExecutionJob;
+import com.example.controlpanel.repository.ControlButtonRepository;
+import com.example.controlpanel.repository.ExecutionJobRepository;
+import com.example.controlpanel.tracing.Tracer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+// Runs buttons as asynchronous jobs. A job is persisted as QUEUED, claimed by exactly one
+// node through a conditional update and run on a bounded local executor. The owning node
+// renews a lease while it runs. Jobs whose lease lapsed (node died) are re-queued when the
+// call is idempotent and failed otherwise. Finished jobs are kept for the retention period.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExecutionJobService {
+
+    private static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
+
+    private final ExecutionJobRepository jobRepository;
+    private final ControlButtonRepository buttonRepository;
+    private final ButtonExecutor buttonExecutor;
+    private final WorkflowExecutor workflowExecutor;
+    private final ObjectMapper objectMapper;
+    private final Tracer tracer;
+    private final ErrorLogSampler errorLogSampler;
+
+    @Value("${app.jobs.workers:8}")
+    private int workers;
+
+    @Value("${app.jobs.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${app.jobs.lease:PT1M}")
+    private Duration lease;
+
+    @Value("${app.jobs.retention:PT24H}")
+    private Duration retention;
+
+    @Value("${app.jobs.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${app.jobs.shutdown-grace:PT30S}")
+    private Duration shutdownGrace;
+
+    // Origins (scheme://host[:port]) callbacks may be sent to; empty means callbacks are refused.
+    // The POST is made from inside the network, so an open target would be a request forgery hole.
+    @Value("${app.jobs.callback-allowed-origins:}")
+    private List<String> callbackAllowedOrigins;
+
+    // Jobs are claimed under this id; a restarted node gets a new one, so its old leases lapse
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Set<String> ownedJobs = ConcurrentHashMap.newKeySet();
+    private final OkHttpClient callbackClient = new OkHttpClient.Builder()
+            .connectTimeout(5, TimeUnit.SECONDS)
+            .readTimeout(10, TimeUnit.SECONDS)
+            // A redirect would lead the POST past the origin allow-list
+            .followRedirects(false)
+            .followSslRedirects(false)
+            .build();
+    private ThreadPoolExecutor jobExecutor;
+    // Set once shutdown interrupts running jobs; their outcome is then left to lease recovery
+    private volatile boolean abandoning;
+    private ObjectWriter resultWriter;
+    private ObjectReader resultReader;
+    private ObjectWriter jobWriter;
+    private Set<String> allowedCallbackOrigins;
+
+    @PostConstruct
+    void init() {
+        resultWriter = objectMapper.writerFor(ButtonDTO.ExecuteButtonResponse.class);
+        resultReader = objectMapper.readerFor(ButtonDTO.ExecuteButtonResponse.class);
+        jobWriter = objectMapper.writerFor(ButtonDTO.JobResponse.class);
+        allowedCallbackOrigins = new HashSet<>();
+        for (String origin : callbackAllowedOrigins) {
+            HttpUrl url = HttpUrl.parse(origin.trim());
+            if (url == null) {
+                throw new IllegalStateException("app.jobs.callback-allowed-origins has an invalid origin: " + origin);
+            }
+            allowedCallbackOrigins.add(origin(url));
+        }
+        jobExecutor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        jobExecutor.shutdown();
+        // Jobs that have not started go straight back to the queue for other nodes
+        List<Runnable> pending = new ArrayList<>();
+        jobExecutor.getQueue().drainTo(pending);
+        pending.forEach(task -> release(((JobTask) task).jobId()));
+        if (!jobExecutor.awaitTermination(shutdownGrace.toMillis(), TimeUnit.MILLISECONDS)) {
+            // Interrupted jobs stay RUNNING; once their lease lapses, recoverStale re-queues
+            // idempotent ones on another node and fails the rest
+            abandoning = true;
+            jobExecutor.shutdownNow();
+            log.warn("Interrupted {} running jobs on shutdown; left for lease recovery", jobExecutor.getActiveCount());
+        }
+    }
+
+    public ButtonDTO.JobResponse submit(ControlButton button, Map<String, Object> inputParams, boolean preview,
+                                        String currentUser, String callbackUrl) {
+        if (callbackUrl != null) {
+            HttpUrl url = HttpUrl.parse(callbackUrl);
+            if (url == null) {
+                throw new IllegalArgumentException("Callback URL is not a valid http(s) URL: " + callbackUrl);
+            }
+            if (!allowedCallbackOrigins.contains(origin(url))) {
+                throw new IllegalArgumentException("Callback URL origin is not in app.jobs.callback-allowed-origins: " + callbackUrl);
+            }
+        }
+        ExecutionJob job = new ExecutionJob();
+        job.setId(UUID.randomUUID().toString());
+        job.setButtonId(button.getId());
+        job.setSubmittedBy(currentUser);
+        job.setStatus(ExecutionJob.Status.QUEUED);
+        job.setInputParameters(inputParams);
+        job.setPreview(preview);
+        job.setCallbackUrl(callbackUrl);
+        Tracer.Span span = tracer.currentSpan();
+        job.setTraceparent(span != null ? span.traceparent() : null);
+        ExecutionJob saved = jobRepository.save(job);
+
+        // The row must be committed before any node can claim it
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(saved.getId());
+                }
+            });
+        } else {
+            dispatch(saved.getId());
+        }
+        return convertToResponse(saved);
+    }
+
+    public ButtonDTO.JobResponse getJob(String id, String currentUser) {
+        ExecutionJob job = jobRepository.findById(id)
+                .filter(found -> found.getSubmittedBy().equals(currentUser))
+                .orElseThrow(() -> new RuntimeException("Job not found or expired: " + id));
+        return convertToResponse(job);
+    }
+
+    // Picks up jobs that were queued while every node was busy, or handed back by recovery
+    @Scheduled(fixedDelayString = "${app.jobs.poll-interval-ms:2000}")
+    public void pollQueued() {
+        int free = queueCapacity - jobExecutor.getQueue().size();
+        if (free <= 0) {
+            return;
+        }
+        jobRepository.findQueuedIds(free).forEach(this::dispatch);
+    }
+
+    @Scheduled(fixedDelayString = "${app.jobs.heartbeat-interval-ms:15000}")
+    public void renewLeases() {
+        if (!ownedJobs.isEmpty()) {
+            jobRepository.heartbeat(new ArrayList<>(ownedJobs), nodeId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.jobs.recovery-interval-ms:60000}")
+    public void recoverStale() {
+        for (ExecutionJob job : jobRepository.findStale(lease.toSeconds())) {
+            Optional<ControlButton> button = buttonRepository.findById(job.getButtonId());
+            boolean retry = job.getAttempts() < maxAttempts && button.map(ExecutionJobService::isIdempotent).orElse(false);
+            if (retry && jobRepository.requeueStale(job.getId(), lease.toSeconds()) == 1) {
+                log.warn("Re-queued job {} after its node stopped renewing the lease", job.getId());
+            } else if (!retry && jobRepository.failStale(job.getId(), lease.toSeconds(),
+                    "The node running this job stopped; the outcome of the call is unknown", retention.toSeconds()) == 1) {
+                log.warn("Failed job {} after its node stopped renewing the lease", job.getId());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.jobs.cleanup-interval-ms:600000}")
+    public void removeExpired() {
+        int removed = jobRepository.deleteExpired();
+        if (removed > 0) {
+            log.debug("Removed {} expired jobs", removed);
+        }
+    }
+
+    private void dispatch(String jobId) {
+        if (jobRepository.claim(jobId, nodeId) == 0) {
+            // Another node got it first
+            return;
+        }
+        ownedJobs.add(jobId);
+        try {
+            jobExecutor.execute(new JobTask(jobId, () -> run(jobId)));
+        } catch (RejectedExecutionException e) {
+            release(jobId);
+        }
+    }
+
+    private void release(String jobId) {
+        ownedJobs.remove(jobId);
+        jobRepository.unclaim(jobId, nodeId);
+    }
+
+    private void run(String jobId) {
+        ExecutionJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            ownedJobs.remove(jobId);
+            return;
+        }
+
+        ExecutionJob.Status status;
+        String result = null;
+        String error = null;
+        try (Tracer.Span span = tracer.startServerSpan("job.run", job.getTraceparent())) {
+            span.setAttribute("job.id", jobId);
+            span.setAttribute("button.id", job.getButtonId());
+            span.setAttribute("job.attempt", job.getAttempts());
+            try {
+                ControlButton button = buttonRepository.findById(job.getButtonId())
+                        .orElseThrow(() -> new RuntimeException("Button not found with id: " + job.getButtonId()));
+                Map<String, Object> inputParams = job.getInputParameters() != null ? job.getInputParameters() : new HashMap<>();
+                boolean preview = Boolean.TRUE.equals(job.getPreview());
+                ButtonDTO.ExecuteButtonResponse response;
+                if (button.getActionType() == ControlButton.ActionType.WORKFLOW) {
+                    response = workflowExecutor.execute(button, inputParams, preview, job.getSubmittedBy(), true);
+                    if (!preview) {
+                        // No surrounding transaction here to flush it
+                        buttonRepository.save(button);
+                    }
+                } else {
+                    response = buttonExecutor.execute(button, inputParams, preview, job.getSubmittedBy(), null, true);
+                }
+                status = Boolean.TRUE.equals(response.getSuccess()) ? ExecutionJob.Status.SUCCEEDED : ExecutionJob.Status.FAILED;
+                result = resultWriter.writeValueAsString(response);
+            } catch (JsonProcessingException | RuntimeException e) {
+                errorLogSampler.error(log, job.getButtonId(), "Job " + jobId + " failed for button", e);
+                span.recordError(e);
+                status = ExecutionJob.Status.FAILED;
+                error = e.getMessage();
+            }
+            span.setAttribute("status", status.name());
+        }
+
+        if (abandoning) {
+            // The failure above is most likely the shutdown interrupt, not the job's own outcome
+            log.warn("Job {} was interrupted by shutdown; its lease is left to lapse", jobId);
+            ownedJobs.remove(jobId);
+            return;
+        }
+        try {
+            if (jobRepository.complete(jobId, nodeId, status.name(), result, error, retention.toSeconds()) == 0) {
+                log.warn("Job {} finished after its lease was taken over; result discarded", jobId);
+                return;
+            }
+        } finally {
+            ownedJobs.remove(jobId);
+        }
+        if (job.getCallbackUrl() != null) {
+            jobRepository.findById(jobId).ifPresent(this::notifyCallback);
+        }
+    }
+
+    private static String origin(HttpUrl url) {
+        return url.scheme() + "://" + url.host() + ":" + url.port();
+    }
+
+    // Best effort: the status endpoint stays the source of truth
+    private void notifyCallback(ExecutionJob job) {
+        try {
+            Request request = new Request.Builder()
+                    .url(job.getCallbackUrl())
+                    .post(RequestBody.create(jobWriter.writeValueAsBytes(convertToResponse(job)), JSON))
+                    .build();
+            try (Response response = callbackClient.newCall(request).execute()) {
+                if (!response.isSuccessful()) {
+                    log.warn("Callback for job {} returned HTTP {}", job.getId(), response.code());
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Callback for job {} failed: {}", job.getId(), e.getMessage());
+        }
+    }
+
+    private ButtonDTO.JobResponse convertToResponse(ExecutionJob job) {
+        ButtonDTO.JobResponse response = new ButtonDTO.JobResponse();
+        response.setId(job.getId());
+        response.setButtonId(job.getButtonId());
+        response.setStatus(job.getStatus());
+        response.setAttempts(job.getAttempts());
+        response.setCreatedAt(job.getCreatedAt());
+        response.setStartedAt(job.getStartedAt());
+        response.setFinishedAt(job.getFinishedAt());
+        response.setExpiresAt(job.getExpiresAt());
+        response.setErrorMessage(job.getErrorMessage());
+        if (job.getResult() != null) {
+            try {
+                response.setResult(resultReader.readValue(job.getResult()));
+            } catch (JsonProcessingException e) {
+                log.warn("Stored result of job {} could not be read: {}", job.getId(), e.getMessage());
+            }
+        }
+        return response;
+    }
+
+    // Safe to send again when a node died mid-call (RFC 9110 idempotent methods)
+    private static boolean isIdempotent(ControlButton button) {
+        return button.getActionType() == ControlButton.ActionType.REST_API_CALL
+                && button.getHttpMethod() != ControlButton.HttpMethod.POST;
+    }
+
+    // Keeps the job id with the task, so jobs still queued at shutdown can be handed back
+    private record JobTask(String jobId, Runnable body) implements Runnable {
+        @Override
+        public void run() {
+            body.run();
+        }
+    }
+}
@@ -14,19 +14,23 @@ CREATE TABLE IF NOT EXISTS control_buttons (
     label VARCHAR(255) NOT NULL,
     icon VARCHAR(100),
     action_type VARCHAR(50) NOT NULL,
-    target_endpoint VARCHAR(500) NOT NULL,
-    http_method VARCHAR(10) NOT NULL,
-    headers TEXT,
-    payload_parameters TEXT,
+    target_endpoint VARCHAR(500),
+    http_method VARCHAR(10),
+    headers JSONB,
+    payload_parameters JSONB,
+    credential_provider VARCHAR(100),
     expected_output_format VARCHAR(50) NOT NULL,
     validation_enabled BOOLEAN DEFAULT TRUE,
-    validation_schema TEXT,
+    validation_schema JSONB,
     preview_enabled BOOLEAN DEFAULT TRUE,
+    workflow_steps JSONB,
+    response_projection JSONB,
     created_by VARCHAR(100) NOT NULL,
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP,
     last_executed_at TIMESTAMP,
     category VARCHAR(100),
+    priority VARCHAR(20) NOT NULL DEFAULT 'NORMAL',
     active BOOLEAN DEFAULT TRUE
 );
 
@@ -34,25 +38,141 @@ CREATE TABLE IF NOT EXISTS control_buttons (
 CREATE TABLE IF NOT EXISTS audit_logs (
     id BIGSERIAL PRIMARY KEY,
     button_id BIGINT NOT NULL,
+    parent_audit_id BIGINT,
+    trace_id VARCHAR(32),
     executed_by VARCHAR(100) NOT NULL,
     executed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     action VARCHAR(500) NOT NULL,
     request_payload TEXT,
     response_data TEXT,
+    request_payload_compressed BYTEA,
+    response_data_compressed BYTEA,
+    body_codec VARCHAR(10) DEFAULT 'NONE',
+    request_payload_hash VARCHAR(64),
+    response_data_hash VARCHAR(64),
     status VARCHAR(20) NOT NULL,
     error_message TEXT,
     execution_time_ms BIGINT,
     FOREIGN KEY (button_id) REFERENCES control_buttons(id) ON DELETE CASCADE
 );
 
+-- Content-addressed audit bodies, shared across audit_logs rows
+CREATE TABLE IF NOT EXISTS audit_blobs (
+    hash VARCHAR(64) PRIMARY KEY,
+    codec VARCHAR(10) NOT NULL,
+    content BYTEA NOT NULL,
+    size_bytes INTEGER NOT NULL,
+    ref_count BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_audit_blobs_unreferenced ON audit_blobs(ref_count) WHERE ref_count <= 0;
+
+-- Release blob references when audit rows go away (including button delete cascades)
+CREATE OR REPLACE FUNCTION audit_blobs_release() RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE audit_blobs SET ref_count = ref_count - 1 WHERE hash = OLD.request_payload_hash;
+    UPDATE audit_blobs SET ref_count = ref_count - 1 WHERE hash = OLD.response_data_hash;
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_audit_logs_release_blobs ON audit_logs;
+CREATE TRIGGER trg_audit_logs_release_blobs
+    AFTER DELETE ON audit_logs
+    FOR EACH ROW EXECUTE FUNCTION audit_blobs_release();
+
+-- Named outbound credentials referenced by control_buttons.credential_provider
+CREATE TABLE IF NOT EXISTS credential_providers (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(100) NOT NULL UNIQUE,
+    type VARCHAR(30) NOT NULL,
+    header_name VARCHAR(100) NOT NULL DEFAULT 'Authorization',
+    static_value VARCHAR(2000),
+    token_url VARCHAR(500),
+    client_id VARCHAR(255),
+    client_secret VARCHAR(500),
+    scope VARCHAR(500),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP
+);
+
+-- Asynchronous execution jobs
+CREATE TABLE IF NOT EXISTS execution_jobs (
+    id VARCHAR(36) PRIMARY KEY,
+    button_id BIGINT NOT NULL,
+    submitted_by VARCHAR(100) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    input_parameters JSONB,
+    preview BOOLEAN NOT NULL DEFAULT FALSE,
+    callback_url VARCHAR(500),
+    traceparent VARCHAR(55),
+    owner_node VARCHAR(36),
+    heartbeat_at TIMESTAMP,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    result JSONB,
+    error_message TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    started_at TIMESTAMP,
+    finished_at TIMESTAMP,
+    expires_at TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_execution_jobs_queued ON execution_jobs(created_at) WHERE status = 'QUEUED';
+CREATE INDEX IF NOT EXISTS idx_execution_jobs_running ON execution_jobs(heartbeat_at) WHERE status = 'RUNNING';
+CREATE INDEX IF NOT EXISTS idx_execution_jobs_expires ON execution_jobs(expires_at) WHERE expires_at IS NOT NULL;
+
+-- Users, roles and per-button / per-category grants (accounts are bootstrapped by the app)
+CREATE TABLE IF NOT EXISTS app_roles (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(50) NOT NULL UNIQUE
+);
+
+CREATE TABLE IF NOT EXISTS app_role_grants (
+    role_id BIGINT NOT NULL REFERENCES app_roles(id) ON DELETE CASCADE,
+    permission VARCHAR(20) NOT NULL,
+    button_id BIGINT,
+    category VARCHAR(100)
+);
+
+CREATE TABLE IF NOT EXISTS app_users (
+    id BIGSERIAL PRIMARY KEY,
+    username VARCHAR(100) NOT NULL UNIQUE,
+    password_hash VARCHAR(100) NOT NULL,
+    enabled BOOLEAN NOT NULL DEFAULT TRUE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS app_user_roles (
+    user_id BIGINT NOT NULL REFERENCES app_users(id) ON DELETE CASCADE,
+    role_id BIGINT NOT NULL REFERENCES app_roles(id) ON DELETE CASCADE,
+    PRIMARY KEY (user_id, role_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_app_role_grants_role ON app_role_grants(role_id);
+
+-- Ids are allocated by Hibernate in blocks of 50 (pooled optimizer)
+ALTER SEQUENCE control_buttons_id_seq INCREMENT BY 50;
+ALTER SEQUENCE audit_logs_id_seq INCREMENT BY 50;
+
 -- Create indexes for better query performance
 CREATE INDEX idx_control_buttons_created_by ON control_buttons(created_by);
 CREATE INDEX idx_control_buttons_active ON control_buttons(active);
 CREATE INDEX idx_control_buttons_category ON control_buttons(category);
-CREATE INDEX idx_audit_logs_button_id ON audit_logs(button_id);
+CREATE INDEX idx_control_buttons_updated_at ON control_buttons(updated_at);
+CREATE INDEX idx_control_buttons_headers ON control_buttons USING GIN (headers);
+CREATE INDEX idx_control_buttons_payload ON control_buttons USING GIN (payload_parameters jsonb_path_ops);
+CREATE INDEX idx_audit_logs_button_executed_at ON audit_logs(button_id, executed_at DESC);
 CREATE INDEX idx_audit_logs_executed_by ON audit_logs(executed_by);
 CREATE INDEX idx_audit_logs_executed_at ON audit_logs(executed_at DESC);
 CREATE INDEX idx_audit_logs_status ON audit_logs(status);
+CREATE INDEX idx_audit_logs_parent ON audit_logs(parent_audit_id) WHERE parent_audit_id IS NOT NULL;
+CREATE INDEX idx_audit_logs_trace ON audit_logs(trace_id) WHERE trace_id IS NOT NULL;
+
+-- Header key lookup: wraps the jsonb ? operator (not usable from JDBC) and is
+-- inlined by the planner so idx_control_buttons_headers still applies
+CREATE OR REPLACE FUNCTION control_button_has_header(h JSONB, name TEXT) RETURNS BOOLEAN
+    AS 'SELECT h ? name' LANGUAGE SQL IMMUTABLE;
 
 -- Sample data for testing (optional)
 INSERT INTO control_buttons (
@@ -122,4 +242,5 @@ GROUP BY cb.id, cb.label, cb.category;
 
 COMMENT ON TABLE control_buttons IS 'Stores configuration for control panel buttons';
 COMMENT ON TABLE audit_logs IS 'Stores audit trail for button executions';
+COMMENT ON TABLE audit_blobs IS 'Deduplicated audit request/response bodies keyed by SHA-256';
 COMMENT ON VIEW button_execution_stats IS 'Provides statistics on button execution history';
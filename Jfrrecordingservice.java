@@ -0,0 +1,187 @@
+package com.example.controlpanel.profiling;
+
+import com.example.controlpanel.dto.ButtonDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// Java Flight Recorder control without a JVM restart: a low-overhead continuous recording
+// kept as a ring buffer (dumped on demand) plus time-boxed recordings started by an admin
+@Service
+@Slf4j
+public class JfrRecordingService {
+
+    private static final Set<String> SETTINGS = Set.of("default", "profile");
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    @Value("${app.profiling.directory:${java.io.tmpdir}/control-panel-jfr}")
+    private Path directory;
+
+    @Value("${app.profiling.max-duration:PT10M}")
+    private Duration maxDuration;
+
+    @Value("${app.profiling.retained-recordings:10}")
+    private int retainedRecordings;
+
+    @Value("${app.profiling.continuous.enabled:true}")
+    private boolean continuousEnabled;
+
+    @Value("${app.profiling.continuous.max-age:PT10M}")
+    private Duration continuousMaxAge;
+
+    @Value("${app.profiling.continuous.max-size-mb:100}")
+    private long continuousMaxSizeMb;
+
+    private final Map<Long, Recording> recordings = new ConcurrentSkipListMap<>();
+    private Recording continuous;
+
+    @PostConstruct
+    void init() throws IOException {
+        Files.createDirectories(directory);
+        if (!continuousEnabled || !FlightRecorder.isAvailable()) {
+            return;
+        }
+        try {
+            continuous = new Recording(Configuration.getConfiguration("default"));
+            continuous.setName("control-panel-continuous");
+            continuous.setToDisk(true);
+            continuous.setMaxAge(continuousMaxAge);
+            continuous.setMaxSize(continuousMaxSizeMb * 1024 * 1024);
+            continuous.start();
+            log.info("Continuous JFR recording started (max age {}, max size {} MB)", continuousMaxAge, continuousMaxSizeMb);
+        } catch (IOException | ParseException | IllegalStateException e) {
+            log.warn("Could not start continuous JFR recording: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        recordings.values().forEach(Recording::close);
+        if (continuous != null) {
+            continuous.close();
+        }
+    }
+
+    public synchronized ButtonDTO.RecordingInfo start(Duration duration, String settings) {
+        if (!FlightRecorder.isAvailable()) {
+            throw new IllegalArgumentException("Flight Recorder is not available in this JVM");
+        }
+        if (!SETTINGS.contains(settings)) {
+            throw new IllegalArgumentException("Settings must be one of " + SETTINGS);
+        }
+        if (duration.isNegative() || duration.isZero() || duration.compareTo(maxDuration) > 0) {
+            throw new IllegalArgumentException("Duration must be between 1 second and " + maxDuration);
+        }
+        if (recordings.values().stream().anyMatch(recording -> recording.getState() == RecordingState.RUNNING)) {
+            throw new IllegalArgumentException("A recording is already running");
+        }
+        pruneStopped();
+
+        String name = "control-panel-" + settings + "-" + LocalDateTime.now().format(FILE_TIMESTAMP);
+        try {
+            Recording recording = new Recording(Configuration.getConfiguration(settings));
+            recording.setName(name);
+            recording.setToDisk(true);
+            recording.setDuration(duration);
+            recording.setDestination(directory.resolve(name + ".jfr"));
+            recording.start();
+            recordings.put(recording.getId(), recording);
+            log.info("JFR recording {} started for {}", name, duration);
+            return toInfo(recording);
+        } catch (IOException | ParseException e) {
+            throw new RuntimeException("Could not start JFR recording: " + e.getMessage(), e);
+        }
+    }
+
+    public ButtonDTO.RecordingInfo stop(long id) {
+        Recording recording = get(id);
+        if (recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+        }
+        return toInfo(recording);
+    }
+
+    public List<ButtonDTO.RecordingInfo> list() {
+        return recordings.values().stream().map(this::toInfo).toList();
+    }
+
+    public Path getFile(long id) {
+        Recording recording = get(id);
+        if (recording.getState() != RecordingState.STOPPED && recording.getState() != RecordingState.CLOSED) {
+            throw new IllegalArgumentException("Recording " + id + " is still running");
+        }
+        return recording.getDestination();
+    }
+
+    // Writes everything currently held by the flight recorder (the continuous ring buffer and
+    // any running recording) to a file
+    public Path dumpSnapshot() {
+        if (!FlightRecorder.isAvailable()) {
+            throw new IllegalArgumentException("Flight Recorder is not available in this JVM");
+        }
+        try (Recording snapshot = FlightRecorder.getFlightRecorder().takeSnapshot()) {
+            if (snapshot.getSize() == 0) {
+                throw new IllegalArgumentException("No recording data available; the continuous recording is disabled");
+            }
+            Path file = directory.resolve("control-panel-snapshot-" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".jfr");
+            snapshot.dump(file);
+            log.info("JFR snapshot written to {}", file);
+            return file;
+        } catch (IOException e) {
+            throw new RuntimeException("Could not dump JFR snapshot: " + e.getMessage(), e);
+        }
+    }
+
+    private Recording get(long id) {
+        Recording recording = recordings.get(id);
+        if (recording == null) {
+            throw new RuntimeException("Recording not found with id: " + id);
+        }
+        return recording;
+    }
+
+    // Keeps the newest stopped recordings; older ones are closed and their files removed
+    private void pruneStopped() {
+        List<Recording> stopped = recordings.values().stream()
+                .filter(recording -> recording.getState() == RecordingState.STOPPED)
+                .toList();
+        for (int i = 0; i < stopped.size() - retainedRecordings + 1; i++) {
+            Recording recording = stopped.get(i);
+            recordings.remove(recording.getId());
+            recording.close();
+            try {
+                Files.deleteIfExists(recording.getDestination());
+            } catch (IOException e) {
+                log.warn("Could not delete {}: {}", recording.getDestination(), e.getMessage());
+            }
+        }
+    }
+
+    private ButtonDTO.RecordingInfo toInfo(Recording recording) {
+        Path destination = recording.getDestination();
+        return new ButtonDTO.RecordingInfo(
+                recording.getId(),
+                recording.getName(),
+                recording.getState().name(),
+                recording.getStartTime(),
+                recording.getDuration() != null ? recording.getDuration().toSeconds() : null,
+                destination != null ? destination.toString() : null,
+                recording.getSize());
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.controlpanel.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+
+// Extracts selected fields from a JSON document in a single streaming pass. Subtrees that
+// no expression can reach are skipped without being materialized.
+//
+// Expressions are JSON pointers ("/items/0/metadata/name") or simple JSONPath
+// ("$.items[*].metadata.name"); "*" matches any field or array index and turns the
+// result for that expression into a list.
+@Component
+@RequiredArgsConstructor
+public class JsonProjector {
+
+    private static final String WILDCARD = "*";
+
+    private final ObjectMapper objectMapper;
+
+    public void validate(List<String> expressions) {
+        if (expressions != null) {
+            expressions.forEach(JsonProjector::parse);
+        }
+    }
+
+    public Map<String, Object> project(InputStream json, List<String> expressions) throws IOException {
+        List<Expression> parsed = expressions.stream().map(expression -> new Expression(expression, parse(expression))).toList();
+        Map<Expression, List<JsonNode>> matches = new LinkedHashMap<>();
+        parsed.forEach(expression -> matches.put(expression, new ArrayList<>()));
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(json)) {
+            if (parser.nextToken() != null) {
+                visit(parser, 0, parsed, matches);
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        matches.forEach((expression, nodes) -> {
+            if (expression.hasWildcard()) {
+                result.put(expression.source(), nodes.stream().map(this::toValue).toList());
+            } else {
+                result.put(expression.source(), nodes.isEmpty() ? null : toValue(nodes.get(0)));
+            }
+        });
+        return result;
+    }
+
+    // The parser is positioned on the first token of the current value
+    private void visit(JsonParser parser, int depth, List<Expression> active,
+                       Map<Expression, List<JsonNode>> matches) throws IOException {
+        if (active.isEmpty()) {
+            parser.skipChildren();
+            return;
+        }
+
+        List<Expression> complete = active.stream().filter(expression -> expression.segments().length == depth).toList();
+        if (!complete.isEmpty()) {
+            JsonNode node = parser.readValueAsTree();
+            complete.forEach(expression -> matches.get(expression).add(node));
+            // Longer expressions overlapping this one ("/metadata" and "/metadata/name") are
+            // answered from the materialized node, the parser has already moved past it
+            List<Expression> deeper = active.stream().filter(expression -> expression.segments().length > depth).toList();
+            if (!deeper.isEmpty()) {
+                collect(node, depth, deeper, matches);
+            }
+            return;
+        }
+
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                parser.nextToken();
+                visit(parser, depth + 1, narrow(active, depth, name), matches);
+            }
+        } else if (token == JsonToken.START_ARRAY) {
+            int index = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                visit(parser, depth + 1, narrow(active, depth, String.valueOf(index++)), matches);
+            }
+        }
+    }
+
+    // Tree counterpart of visit, in the same document order
+    private static void collect(JsonNode node, int depth, List<Expression> active,
+                                Map<Expression, List<JsonNode>> matches) {
+        List<Expression> deeper = new ArrayList<>(active.size());
+        for (Expression expression : active) {
+            if (expression.segments().length == depth) {
+                matches.get(expression).add(node);
+            } else {
+                deeper.add(expression);
+            }
+        }
+        if (deeper.isEmpty()) {
+            return;
+        }
+        if (node.isObject()) {
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                collect(field.getValue(), depth + 1, narrow(deeper, depth, field.getKey()), matches);
+            }
+        } else if (node.isArray()) {
+            for (int index = 0; index < node.size(); index++) {
+                collect(node.get(index), depth + 1, narrow(deeper, depth, String.valueOf(index)), matches);
+            }
+        }
+    }
+
+    private static List<Expression> narrow(List<Expression> active, int depth, String segment) {
+        List<Expression> narrowed = new ArrayList<>(active.size());
+        for (Expression expression : active) {
+            String expected = expression.segments()[depth];
+            if (WILDCARD.equals(expected) || expected.equals(segment)) {
+                narrowed.add(expression);
+            }
+        }
+        return narrowed;
+    }
+
+    private Object toValue(JsonNode node) {
+        return objectMapper.convertValue(node, Object.class);
+    }
+
+    static String[] parse(String expression) {
+        if (expression == null || expression.isBlank()) {
+            throw new IllegalArgumentException("Response projection expression must not be blank");
+        }
+        if (expression.startsWith("$")) {
+            return parseJsonPath(expression);
+        }
+        if (!expression.startsWith("/")) {
+            throw new IllegalArgumentException("Response projection must be a JSON pointer or JSONPath: " + expression);
+        }
+        if (expression.equals("/")) {
+            return new String[]{""};
+        }
+        return Arrays.stream(expression.substring(1).split("/", -1))
+                .map(segment -> segment.replace("~1", "/").replace("~0", "~"))
+                .toArray(String[]::new);
+    }
+
+    private static String[] parseJsonPath(String expression) {
+        List<String> segments = new ArrayList<>();
+        int i = 1;
+        while (i < expression.length()) {
+            char c = expression.charAt(i);
+            if (c == '.') {
+                int end = i + 1;
+                while (end < expression.length() && expression.charAt(end) != '.' && expression.charAt(end) != '[') {
+                    end++;
+                }
+                segments.add(expression.substring(i + 1, end));
+                i = end;
+            } else if (c == '[') {
+                int end = expression.indexOf(']', i);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Unterminated '[' in response projection: " + expression);
+                }
+                String segment = expression.substring(i + 1, end).trim();
+                if (segment.length() >= 2 && (segment.startsWith("'") || segment.startsWith("\""))) {
+                    segment = segment.substring(1, segment.length() - 1);
+                }
+                segments.add(segment);
+                i = end + 1;
+            } else {
+                throw new IllegalArgumentException("Unsupported JSONPath syntax in response projection: " + expression);
+            }
+        }
+        if (segments.stream().anyMatch(String::isEmpty)) {
+            throw new IllegalArgumentException("Empty segment in response projection: " + expression);
+        }
+        return segments.toArray(String[]::new);
+    }
+
+    private record Expression(String source, String[] segments) {
+        boolean hasWildcard() {
+            return Arrays.asList(segments).contains(WILDCARD);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.controlpanel.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class JsonProjectorTest {
+
+    private static final String DOCUMENT = """
+            {"metadata": {"name": "api", "labels": {"tier": "web"}},
+             "items": [{"name": "a", "size": 1}, {"name": "b", "size": 2}]}
+            """;
+
+    private final JsonProjector projector = new JsonProjector(new ObjectMapper());
+
+    private Map<String, Object> project(String... expressions) throws Exception {
+        return projector.project(new ByteArrayInputStream(DOCUMENT.getBytes(StandardCharsets.UTF_8)), List.of(expressions));
+    }
+
+    @Test
+    void overlappingPointersAreAllAnswered() throws Exception {
+        Map<String, Object> result = project("/metadata", "/metadata/name", "/metadata/labels/tier");
+
+        assertEquals(Map.of("name", "api", "labels", Map.of("tier", "web")), result.get("/metadata"));
+        assertEquals("api", result.get("/metadata/name"));
+        assertEquals("web", result.get("/metadata/labels/tier"));
+    }
+
+    @Test
+    void overlappingWildcardsAreAllAnswered() throws Exception {
+        Map<String, Object> result = project("$.items[*]", "$.items[*].name", "/items/1/size");
+
+        assertEquals(List.of(Map.of("name", "a", "size", 1), Map.of("name", "b", "size", 2)), result.get("$.items[*]"));
+        assertEquals(List.of("a", "b"), result.get("$.items[*].name"));
+        assertEquals(2, result.get("/items/1/size"));
+    }
+
+    @Test
+    void missingPathIsNull() throws Exception {
+        Map<String, Object> result = project("/metadata", "/metadata/missing");
+
+        assertNull(result.get("/metadata/missing"));
+    }
+}
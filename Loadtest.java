@@ -0,0 +1,510 @@
+package com.example.controlpanel.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Self-contained load test for a running backend. Starts an in-process stub target with
+// configurable latency, error rate and payload size, creates buttons pointing at it, drives
+// a weighted mix of list/get/execute traffic and checks the results against SLOs.
+// Exits with status 1 when an SLO is breached. JDK only, so it runs as a single source file:
+//
+//   java -Dusers=20 -Dduration=60 Loadtest.java
+//
+// With -Dstub.tokenTtlSeconds=N the stub also serves an OAuth2 client-credentials token
+// endpoint, only accepts unexpired tokens, and the buttons use a credential provider for it;
+// the run then also checks that no call was rejected and that tokens were reused.
+//
+// See load-test.sh for starting PostgreSQL and the backend around it.
+public class LoadTest {
+
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+    private static final Pattern EXECUTE_SUCCESS = Pattern.compile("\"success\"\\s*:\\s*true");
+
+    enum Operation { LIST, GET, EXECUTE }
+
+    private static final String CREDENTIAL_PROVIDER = "load-test";
+
+    public static void main(String[] args) throws Exception {
+        Config config = new Config();
+        TokenStub tokens = config.tokenTtlSeconds > 0 ? new TokenStub(config.tokenTtlSeconds) : null;
+        HttpServer stub = startStub(config, tokens);
+        boolean passed;
+        try {
+            passed = run(config, "http://localhost:" + stub.getAddress().getPort(), tokens);
+        } finally {
+            stub.stop(0);
+        }
+        System.out.println(passed ? "RESULT: PASS" : "RESULT: FAIL");
+        System.exit(passed ? 0 : 1);
+    }
+
+    private static boolean run(Config config, String stubBaseUrl, TokenStub tokens) throws Exception {
+        String stubUrl = stubBaseUrl + "/stub";
+        System.out.printf("Stub target at %s (latency %d+0..%d ms, error rate %.2f, payload %d bytes)%n",
+                stubUrl, config.stubLatencyMs, config.stubJitterMs, config.stubErrorRate, config.payloadBytes);
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newFixedThreadPool(Math.max(4, config.users), LoadTest::daemon))
+                .build();
+        Api api = new Api(client, config, config.auth);
+        Api admin = new Api(client, config, config.adminAuth);
+
+        long started = System.nanoTime();
+        if (tokens != null) {
+            registerCredentialProvider(admin, stubBaseUrl + "/token");
+            System.out.printf("Token endpoint at %s/token (tokens live %d s)%n", stubBaseUrl, config.tokenTtlSeconds);
+        }
+        List<Long> buttonIds = createButtons(api, stubUrl, config.buttons, tokens != null);
+        System.out.printf("Created %d buttons; warming up for %d s, measuring for %d s with %d users%n",
+                buttonIds.size(), config.warmupSeconds, config.durationSeconds, config.users);
+
+        Report report;
+        try {
+            report = drive(api, buttonIds, config);
+        } finally {
+            if (config.cleanup) {
+                buttonIds.forEach(api::deleteQuietly);
+                if (tokens != null) {
+                    admin.deleteQuietly("/control-panel/admin/credentials/" + CREDENTIAL_PROVIDER);
+                }
+            }
+        }
+
+        report.print();
+        boolean passed = report.checkSlos(config);
+        if (tokens != null) {
+            passed &= tokens.check((System.nanoTime() - started) / 1e9);
+        }
+        return passed;
+    }
+
+    private static void registerCredentialProvider(Api admin, String tokenUrl) throws Exception {
+        String body = "{\"type\":\"OAUTH2_CLIENT_CREDENTIALS\",\"tokenUrl\":\"" + tokenUrl + "\","
+                + "\"clientId\":\"" + TokenStub.CLIENT_ID + "\",\"clientSecret\":\"" + TokenStub.CLIENT_SECRET + "\"}";
+        HttpResponse<String> response = admin.send(admin.request("/control-panel/admin/credentials/" + CREDENTIAL_PROVIDER)
+                .PUT(HttpRequest.BodyPublishers.ofString(body)).build());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("Could not register credential provider (HTTP " + response.statusCode() + "): " + response.body());
+        }
+    }
+
+    private static HttpServer startStub(Config config, TokenStub tokens) throws IOException {
+        byte[] payload = stubPayload(config.payloadBytes);
+        byte[] error = "{\"error\":\"injected failure\"}".getBytes(StandardCharsets.UTF_8);
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", config.stubPort), 0);
+        server.setExecutor(Executors.newCachedThreadPool(LoadTest::daemon));
+        server.createContext("/stub", exchange -> {
+            if (tokens != null && !tokens.accepts(exchange.getRequestHeaders().getFirst("Authorization"))) {
+                exchange.getRequestBody().readAllBytes();
+                exchange.sendResponseHeaders(401, -1);
+                exchange.close();
+                return;
+            }
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long delay = config.stubLatencyMs + (config.stubJitterMs > 0 ? random.nextLong(config.stubJitterMs + 1) : 0);
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getRequestBody().readAllBytes();
+            boolean fail = random.nextDouble() < config.stubErrorRate;
+            byte[] body = fail ? error : payload;
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(fail ? 500 : 200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        if (tokens != null) {
+            server.createContext("/token", tokens::issue);
+        }
+        server.start();
+        return server;
+    }
+
+    // Nothing the harness starts may keep the JVM alive after a failed run
+    private static Thread daemon(Runnable runnable) {
+        Thread thread = new Thread(runnable);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    // A JSON array of small objects padded to roughly the requested size
+    private static byte[] stubPayload(int bytes) {
+        StringBuilder json = new StringBuilder("{\"items\":[");
+        int i = 0;
+        while (json.length() < bytes - 64) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(i).append(",\"name\":\"item-").append(i).append("\",\"status\":\"ok\"}");
+            i++;
+        }
+        return json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<Long> createButtons(Api api, String stubUrl, int count, boolean withCredentials) throws Exception {
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String body = "{\"label\":\"load-test-" + i + "\",\"category\":\"load-test\","
+                    + "\"actionType\":\"REST_API_CALL\",\"targetEndpoint\":\"" + stubUrl + "\","
+                    + (withCredentials ? "\"credentialProvider\":\"" + CREDENTIAL_PROVIDER + "\"," : "")
+                    + "\"httpMethod\":\"GET\",\"expectedOutputFormat\":\"JSON\"}";
+            HttpResponse<String> response = api.send(api.request("/control-panel/button")
+                    .POST(HttpRequest.BodyPublishers.ofString(body)).build());
+            Matcher matcher = ID.matcher(response.body());
+            if (response.statusCode() / 100 != 2 || !matcher.find()) {
+                throw new IllegalStateException("Could not create button (HTTP " + response.statusCode() + "): " + response.body());
+            }
+            ids.add(Long.parseLong(matcher.group(1)));
+        }
+        return ids;
+    }
+
+    // OAuth2 client-credentials token endpoint; the stub target only accepts unexpired tokens
+    private static class TokenStub {
+        static final String CLIENT_ID = "load-test";
+        static final String CLIENT_SECRET = "load-test-secret";
+
+        private final int ttlSeconds;
+        private final Map<String, Long> expiries = new ConcurrentHashMap<>();
+        private final AtomicLong issued = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+
+        TokenStub(int ttlSeconds) {
+            this.ttlSeconds = ttlSeconds;
+        }
+
+        void issue(HttpExchange exchange) throws IOException {
+            String form = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            String expected = "Basic " + Base64.getEncoder()
+                    .encodeToString((CLIENT_ID + ":" + CLIENT_SECRET).getBytes(StandardCharsets.UTF_8));
+            int status;
+            String body;
+            if (form.contains("grant_type=client_credentials")
+                    && expected.equals(exchange.getRequestHeaders().getFirst("Authorization"))) {
+                String token = UUID.randomUUID().toString();
+                expiries.put(token, System.nanoTime() + TimeUnit.SECONDS.toNanos(ttlSeconds));
+                issued.incrementAndGet();
+                status = 200;
+                body = "{\"access_token\":\"" + token + "\",\"token_type\":\"Bearer\",\"expires_in\":" + ttlSeconds + "}";
+            } else {
+                status = 401;
+                body = "{\"error\":\"invalid_client\"}";
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+
+        boolean accepts(String authorization) {
+            Long expiry = authorization != null && authorization.startsWith("Bearer ")
+                    ? expiries.get(authorization.substring("Bearer ".length()))
+                    : null;
+            if (expiry == null || expiry - System.nanoTime() < 0) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            return true;
+        }
+
+        // Proactive refresh must keep every call authorized while fetching about one token per lifetime
+        boolean check(double elapsedSeconds) {
+            System.out.printf("Token endpoint issued %d tokens; the target rejected %d calls%n", issued.get(), rejected.get());
+            double maxTokens = Math.ceil(elapsedSeconds / (ttlSeconds * 0.5)) + 1;
+            boolean passed = Report.check("rejected credentials", rejected.get(), "<=", 0, "calls");
+            return Report.check("tokens issued", issued.get(), "<=", maxTokens, "tokens") && passed;
+        }
+    }
+
+    private static Report drive(Api api, List<Long> buttonIds, Config config) throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(config.warmupSeconds);
+        long deadline = measureFrom + TimeUnit.SECONDS.toNanos(config.durationSeconds);
+
+        List<Worker> workers = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(config.users, LoadTest::daemon);
+        for (int i = 0; i < config.users; i++) {
+            Worker worker = new Worker(api, buttonIds, config, measureFrom, deadline);
+            workers.add(worker);
+            pool.execute(worker);
+        }
+        pool.shutdown();
+        if (!pool.awaitTermination(config.warmupSeconds + config.durationSeconds + 120L, TimeUnit.SECONDS)) {
+            pool.shutdownNow();
+        }
+
+        Report report = new Report(config.durationSeconds);
+        workers.forEach(worker -> report.merge(worker.stats));
+        report.sort();
+        return report;
+    }
+
+    private static class Worker implements Runnable {
+        private final Api api;
+        private final List<Long> buttonIds;
+        private final Config config;
+        private final long measureFrom;
+        private final long deadline;
+        private final Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+
+        Worker(Api api, List<Long> buttonIds, Config config, long measureFrom, long deadline) {
+            this.api = api;
+            this.buttonIds = buttonIds;
+            this.config = config;
+            this.measureFrom = measureFrom;
+            this.deadline = deadline;
+            for (Operation operation : Operation.values()) {
+                stats.put(operation, new Stats());
+            }
+        }
+
+        @Override
+        public void run() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (System.nanoTime() < deadline) {
+                Operation operation = config.pick(random.nextInt(config.totalWeight()));
+                long id = buttonIds.get(random.nextInt(buttonIds.size()));
+                HttpRequest request = switch (operation) {
+                    case LIST -> api.request("/control-panel/buttons").GET().build();
+                    case GET -> api.request("/control-panel/button/" + id).GET().build();
+                    case EXECUTE -> api.request("/control-panel/execute/" + id)
+                            .POST(HttpRequest.BodyPublishers.ofString("{\"inputParameters\":{},\"isPreview\":false}"))
+                            .build();
+                };
+
+                long begin = System.nanoTime();
+                int status;
+                boolean upstreamFailed = false;
+                try {
+                    HttpResponse<String> response = api.send(request);
+                    status = response.statusCode();
+                    upstreamFailed = operation == Operation.EXECUTE
+                            && !EXECUTE_SUCCESS.matcher(response.body()).find();
+                } catch (Exception e) {
+                    status = -1;
+                }
+                long end = System.nanoTime();
+
+                if (begin >= measureFrom && end <= deadline) {
+                    stats.get(operation).record(end - begin, status / 100 == 2, upstreamFailed);
+                }
+                if (config.thinkTimeMs > 0) {
+                    try {
+                        Thread.sleep(random.nextLong(config.thinkTimeMs + 1));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    private static class Stats {
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+        private long upstreamFailures;
+
+        void record(long latencyNanos, boolean ok, boolean upstreamFailed) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latencyNanos;
+            if (!ok) {
+                errors++;
+            }
+            if (upstreamFailed) {
+                upstreamFailures++;
+            }
+        }
+
+        void merge(Stats other) {
+            if (count + other.count > latencies.length) {
+                latencies = Arrays.copyOf(latencies, count + other.count);
+            }
+            System.arraycopy(other.latencies, 0, latencies, count, other.count);
+            count += other.count;
+            errors += other.errors;
+            upstreamFailures += other.upstreamFailures;
+        }
+
+        double percentileMs(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+            return latencies[Math.max(0, Math.min(index, count - 1))] / 1_000_000.0;
+        }
+
+        double errorRate() {
+            return count == 0 ? 0 : (double) errors / count;
+        }
+    }
+
+    private static class Report {
+        private final int durationSeconds;
+        private final Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+        private final Stats total = new Stats();
+
+        Report(int durationSeconds) {
+            this.durationSeconds = durationSeconds;
+            for (Operation operation : Operation.values()) {
+                stats.put(operation, new Stats());
+            }
+        }
+
+        void merge(Map<Operation, Stats> workerStats) {
+            workerStats.forEach((operation, s) -> {
+                stats.get(operation).merge(s);
+                total.merge(s);
+            });
+        }
+
+        void sort() {
+            stats.values().forEach(s -> Arrays.sort(s.latencies, 0, s.count));
+            Arrays.sort(total.latencies, 0, total.count);
+        }
+
+        void print() {
+            System.out.printf("%n%-8s %9s %9s %9s %9s %9s %9s %8s %9s%n",
+                    "op", "requests", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms", "errors", "upstream");
+            stats.forEach((operation, s) -> printRow(operation.name(), s));
+            printRow("TOTAL", total);
+            System.out.println();
+        }
+
+        private void printRow(String name, Stats s) {
+            System.out.printf("%-8s %9d %9.1f %9.1f %9.1f %9.1f %9.1f %7.2f%% %9d%n",
+                    name, s.count, throughput(s), s.percentileMs(50), s.percentileMs(90), s.percentileMs(99),
+                    s.percentileMs(100), s.errorRate() * 100, s.upstreamFailures);
+        }
+
+        private double throughput(Stats s) {
+            return (double) s.count / durationSeconds;
+        }
+
+        boolean checkSlos(Config config) {
+            boolean passed = true;
+            for (Operation operation : Operation.values()) {
+                Stats s = stats.get(operation);
+                if (s.count == 0) {
+                    continue;
+                }
+                double limit = operation == Operation.EXECUTE ? config.sloExecuteP99Ms : config.sloReadP99Ms;
+                passed &= check(operation + " p99 latency", s.percentileMs(99), "<=", limit, "ms");
+                passed &= check(operation + " error rate", s.errorRate() * 100, "<=", config.sloErrorRate * 100, "%");
+            }
+            if (config.sloMinThroughput > 0) {
+                passed &= check("throughput", throughput(total), ">=", config.sloMinThroughput, "req/s");
+            }
+            return passed;
+        }
+
+        private static boolean check(String name, double actual, String comparison, double limit, String unit) {
+            boolean ok = comparison.equals("<=") ? actual <= limit : actual >= limit;
+            System.out.printf("SLO %-24s %10.2f %s %10.2f %-6s %s%n", name, actual, comparison, limit, unit, ok ? "ok" : "BREACHED");
+            return ok;
+        }
+    }
+
+    private static class Api {
+        private final HttpClient client;
+        private final Config config;
+        private final String authorization;
+
+        Api(HttpClient client, Config config, String auth) {
+            this.client = client;
+            this.config = config;
+            this.authorization = "Basic " + Base64.getEncoder()
+                    .encodeToString(auth.getBytes(StandardCharsets.UTF_8));
+        }
+
+        HttpRequest.Builder request(String path) {
+            return HttpRequest.newBuilder(URI.create(config.baseUrl + path))
+                    .timeout(Duration.ofSeconds(60))
+                    .header("Authorization", authorization)
+                    .header("Content-Type", "application/json");
+        }
+
+        HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+            return client.send(request, HttpResponse.BodyHandlers.ofString());
+        }
+
+        void deleteQuietly(long id) {
+            deleteQuietly("/control-panel/button/" + id);
+        }
+
+        void deleteQuietly(String path) {
+            try {
+                send(request(path).DELETE().build());
+            } catch (Exception e) {
+                System.err.println("Could not delete " + path + ": " + e.getMessage());
+            }
+        }
+    }
+
+    // All settings are system properties (-Dname=value)
+    private static class Config {
+        final String baseUrl = System.getProperty("baseUrl", "http://localhost:8080/api");
+        final String auth = System.getProperty("auth", "user:password");
+        // Only used to register the credential provider
+        final String adminAuth = System.getProperty("adminAuth", "admin:admin");
+        final int users = Integer.getInteger("users", 20);
+        final int buttons = Integer.getInteger("buttons", 100);
+        final int warmupSeconds = Integer.getInteger("warmup", 10);
+        final int durationSeconds = Integer.getInteger("duration", 60);
+        final int thinkTimeMs = Integer.getInteger("thinkTimeMs", 0);
+        final boolean cleanup = Boolean.parseBoolean(System.getProperty("cleanup", "true"));
+
+        // Traffic mix as relative weights
+        final int listWeight = Integer.getInteger("mix.list", 20);
+        final int getWeight = Integer.getInteger("mix.get", 40);
+        final int executeWeight = Integer.getInteger("mix.execute", 40);
+
+        final int stubPort = Integer.getInteger("stub.port", 0);
+        final int stubLatencyMs = Integer.getInteger("stub.latencyMs", 50);
+        final int stubJitterMs = Integer.getInteger("stub.jitterMs", 50);
+        final double stubErrorRate = Double.parseDouble(System.getProperty("stub.errorRate", "0.01"));
+        final int payloadBytes = Integer.getInteger("stub.payloadBytes", 4096);
+        final int tokenTtlSeconds = Integer.getInteger("stub.tokenTtlSeconds", 0);
+
+        // Defaults follow the README: executions respond within 2 seconds
+        final double sloExecuteP99Ms = Double.parseDouble(System.getProperty("slo.executeP99Ms", "2000"));
+        final double sloReadP99Ms = Double.parseDouble(System.getProperty("slo.readP99Ms", "500"));
+        final double sloErrorRate = Double.parseDouble(System.getProperty("slo.errorRate", "0.01"));
+        final double sloMinThroughput = Double.parseDouble(System.getProperty("slo.minThroughput", "0"));
+
+        int totalWeight() {
+            return listWeight + getWeight + executeWeight;
+        }
+
+        Operation pick(int roll) {
+            if (roll < listWeight) {
+                return Operation.LIST;
+            }
+            return roll < listWeight + getWeight ? Operation.GET : Operation.EXECUTE;
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.example.controlpanel.service;
+
+import com.example.controlpanel.dto.ButtonDTO;
+import com.example.controlpanel.entity.AppUser;
+import com.example.controlpanel.entity.ControlButton;
+import com.example.controlpanel.entity.Role;
+import com.example.controlpanel.repository.AppUserRepository;
+import com.example.controlpanel.repository.RoleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+// Users, roles and per-button / per-category grants live in the database; every decision is
+// served from an immutable in-memory snapshot. Per user and permission, button grants are a
+// bitset over button ids and category grants a bitset over interned category indexes, so a
+// check is a map lookup plus a bit test. The snapshot is rebuilt after each change made here
+// and on a fixed delay to pick up changes made by other nodes.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PermissionService implements UserDetailsService {
+
+    private static final int PERMISSIONS = Role.Permission.values().length;
+
+    private final AppUserRepository userRepository;
+    private final RoleRepository roleRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final PlatformTransactionManager transactionManager;
+
+    // Only used to create the first accounts on an empty user table
+    @Value("${app.security.bootstrap.user-password:password}")
+    private String bootstrapUserPassword;
+
+    @Value("${app.security.bootstrap.admin-password:admin}")
+    private String bootstrapAdminPassword;
+
+    private volatile Snapshot snapshot;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            if (userRepository.count() > 0) {
+                return;
+            }
+            Role userRole = roleRepository.findByName("USER").orElseGet(() -> roleRepository.save(
+                    new Role(null, "USER", new ArrayList<>(List.of(new Role.Grant(Role.Permission.EXECUTE, null, null))))));
+            Role adminRole = roleRepository.findByName("ADMIN").orElseGet(() -> roleRepository.save(
+                    new Role(null, "ADMIN", new ArrayList<>(List.of(
+                            new Role.Grant(Role.Permission.EXECUTE, null, null),
+                            new Role.Grant(Role.Permission.EDIT, null, null))))));
+            userRepository.save(new AppUser(null, "user", passwordEncoder.encode(bootstrapUserPassword), true,
+                    new HashSet<>(Set.of(userRole)), null));
+            userRepository.save(new AppUser(null, "admin", passwordEncoder.encode(bootstrapAdminPassword), true,
+                    new HashSet<>(Set.of(userRole, adminRole)), null));
+            log.warn("No users found; created the default 'user' and 'admin' accounts");
+        });
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.refresh-interval-ms:30000}")
+    public void refresh() {
+        try {
+            snapshot = load();
+        } catch (RuntimeException e) {
+            // Keep serving the last good snapshot
+            log.warn("Could not refresh the authorization snapshot: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String username) {
+        UserGrants user = snapshot().users().get(username);
+        if (user == null) {
+            throw new UsernameNotFoundException("Unknown user: " + username);
+        }
+        // Built per call: the authentication provider erases the password on what it gets
+        return User.withUsername(username)
+                .password(user.passwordHash())
+                .disabled(!user.enabled())
+                .authorities(user.authorities())
+                .build();
+    }
+
+    public boolean isGranted(String username, Role.Permission permission, Long buttonId, String category) {
+        Snapshot current = snapshot();
+        UserGrants user = current.users().get(username);
+        if (user == null || !user.enabled()) {
+            return false;
+        }
+        int p = permission.ordinal();
+        if ((user.globalMask() & (1 << p)) != 0) {
+            return true;
+        }
+        if (buttonId != null && buttonId <= Integer.MAX_VALUE && user.buttons()[p].get(buttonId.intValue())) {
+            return true;
+        }
+        if (category != null) {
+            Integer index = current.categoryIndex().get(category);
+            return index != null && user.categories()[p].get(index);
+        }
+        return false;
+    }
+
+    public void check(Role.Permission permission, ControlButton button) {
+        check(permission, button.getId(), button.getCategory());
+    }
+
+    public void check(Role.Permission permission, Long buttonId, String category) {
+        check(currentUser(), permission, buttonId, category);
+    }
+
+    // For work that runs on behalf of a user outside the request thread, e.g. async jobs
+    public void check(String username, Role.Permission permission, ControlButton button) {
+        check(username, permission, button.getId(), button.getCategory());
+    }
+
+    private void check(String username, Role.Permission permission, Long buttonId, String category) {
+        if (!isGranted(username, permission, buttonId, category)) {
+            throw new AccessDeniedException(permission + " is not granted to " + username
+                    + (buttonId != null ? " on button " + buttonId : category != null ? " in category " + category : ""));
+        }
+    }
+
+    public List<ButtonDTO.UserResponse> getUsers() {
+        return new TransactionTemplate(transactionManager).execute(status -> userRepository.findAll().stream()
+                .sorted(Comparator.comparing(AppUser::getUsername))
+                .map(this::convertToResponse)
+                .collect(Collectors.toList()));
+    }
+
+    // Creates the user when missing; a password is required then
+    public ButtonDTO.UserResponse saveUser(String username, ButtonDTO.UserRequest request) {
+        ButtonDTO.UserResponse response = new TransactionTemplate(transactionManager).execute(status -> {
+            AppUser user = userRepository.findByUsername(username).orElseGet(() -> {
+                if (request.getPassword() == null || request.getPassword().isBlank()) {
+                    throw new IllegalArgumentException("Password is required for a new user");
+                }
+                AppUser created = new AppUser();
+                created.setUsername(username);
+                return created;
+            });
+            if (request.getPassword() != null && !request.getPassword().isBlank()) {
+                user.setPasswordHash(passwordEncoder.encode(request.getPassword()));
+            }
+            if (request.getEnabled() != null) {
+                user.setEnabled(request.getEnabled());
+            }
+            if (request.getRoles() != null) {
+                List<Role> roles = roleRepository.findByNameIn(request.getRoles());
+                if (roles.size() != new HashSet<>(request.getRoles()).size()) {
+                    throw new IllegalArgumentException("Unknown role in " + request.getRoles());
+                }
+                user.setRoles(new HashSet<>(roles));
+            }
+            return convertToResponse(userRepository.save(user));
+        });
+        refresh();
+        return response;
+    }
+
+    public void deleteUser(String username) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            AppUser user = userRepository.findByUsername(username)
+                    .orElseThrow(() -> new RuntimeException("User not found: " + username));
+            userRepository.delete(user);
+        });
+        refresh();
+    }
+
+    public List<ButtonDTO.RoleResponse> getRoles() {
+        return new TransactionTemplate(transactionManager).execute(status -> roleRepository.findAll().stream()
+                .sorted(Comparator.comparing(Role::getName))
+                .map(role -> new ButtonDTO.RoleResponse(role.getName(), new ArrayList<>(role.getGrants())))
+                .collect(Collectors.toList()));
+    }
+
+    // Replaces the role's grants, creating the role when missing
+    public ButtonDTO.RoleResponse saveRole(String name, ButtonDTO.RoleRequest request) {
+        for (Role.Grant grant : request.getGrants()) {
+            if (grant.getPermission() == null) {
+                throw new IllegalArgumentException("Grant permission is required");
+            }
+            if (grant.getButtonId() != null && (grant.getButtonId() < 0 || grant.getButtonId() > Integer.MAX_VALUE)) {
+                throw new IllegalArgumentException("Grant button id out of range: " + grant.getButtonId());
+            }
+            if (grant.getButtonId() != null && grant.getCategory() != null) {
+                throw new IllegalArgumentException("A grant targets either a button or a category, not both");
+            }
+        }
+        ButtonDTO.RoleResponse response = new TransactionTemplate(transactionManager).execute(status -> {
+            Role role = roleRepository.findByName(name).orElseGet(() -> new Role(null, name, new ArrayList<>()));
+            role.getGrants().clear();
+            role.getGrants().addAll(request.getGrants());
+            Role saved = roleRepository.save(role);
+            return new ButtonDTO.RoleResponse(saved.getName(), new ArrayList<>(saved.getGrants()));
+        });
+        refresh();
+        return response;
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    snapshot = load();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    private Snapshot load() {
+        List<AppUser> users = new TransactionTemplate(transactionManager).execute(status -> userRepository.findAllWithGrants());
+        Map<String, Integer> categoryIndex = new HashMap<>();
+        Map<String, UserGrants> byName = new HashMap<>(users.size() * 2);
+        for (AppUser user : users) {
+            int globalMask = 0;
+            BitSet[] buttons = new BitSet[PERMISSIONS];
+            BitSet[] categories = new BitSet[PERMISSIONS];
+            for (int p = 0; p < PERMISSIONS; p++) {
+                buttons[p] = new BitSet();
+                categories[p] = new BitSet();
+            }
+            List<GrantedAuthority> authorities = new ArrayList<>();
+            for (Role role : user.getRoles()) {
+                authorities.add(new SimpleGrantedAuthority("ROLE_" + role.getName()));
+                for (Role.Grant grant : role.getGrants()) {
+                    int p = grant.getPermission().ordinal();
+                    if (grant.getButtonId() != null) {
+                        buttons[p].set(Math.toIntExact(grant.getButtonId()));
+                    } else if (grant.getCategory() != null) {
+                        categories[p].set(categoryIndex.computeIfAbsent(grant.getCategory(), c -> categoryIndex.size()));
+                    } else {
+                        globalMask |= 1 << p;
+                    }
+                }
+            }
+            byName.put(user.getUsername(), new UserGrants(user.getPasswordHash(), Boolean.TRUE.equals(user.getEnabled()),
+                    List.copyOf(authorities), globalMask, buttons, categories));
+        }
+        log.debug("Authorization snapshot loaded: {} users, {} granted categories", byName.size(), categoryIndex.size());
+        return new Snapshot(Map.copyOf(categoryIndex), Map.copyOf(byName));
+    }
+
+    private ButtonDTO.UserResponse convertToResponse(AppUser user) {
+        return new ButtonDTO.UserResponse(user.getUsername(), user.getEnabled(),
+                user.getRoles().stream().map(Role::getName).sorted().collect(Collectors.toList()));
+    }
+
+    private String currentUser() {
+        try {
+            return SecurityContextHolder.getContext().getAuthentication().getName();
+        } catch (Exception e) {
+            return "system";
+        }
+    }
+
+    private record Snapshot(Map<String, Integer> categoryIndex, Map<String, UserGrants> users) {
+    }
+
+    // Bitsets are indexed by Role.Permission ordinal and never modified once published
+    private record UserGrants(String passwordHash, boolean enabled, List<GrantedAuthority> authorities,
+                              int globalMask, BitSet[] buttons, BitSet[] categories) {
+    }
+}
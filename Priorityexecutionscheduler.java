@@ -0,0 +1,290 @@
+package com.example.controlpanel.service;
+
+import com.example.controlpanel.dto.ButtonDTO;
+import com.example.controlpanel.entity.ControlButton;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Runs outbound calls on a shared worker pool fed by one bounded lane per priority.
+// Lanes are served by smooth weighted round-robin; a task that has waited past the
+// starvation threshold is served first regardless of weight. Some workers are held back
+// for CRITICAL work so operator clicks never wait behind a saturated pool.
+@Component
+@Slf4j
+public class PriorityExecutionScheduler {
+
+    @Value("${app.scheduler.workers:64}")
+    private int workers;
+
+    @Value("${app.scheduler.reserved-critical-workers:8}")
+    private int reservedCriticalWorkers;
+
+    @Value("${app.scheduler.starvation-threshold-ms:2000}")
+    private long starvationThresholdMs;
+
+    @Value("${app.scheduler.critical.weight:8}")
+    private int criticalWeight;
+
+    @Value("${app.scheduler.critical.capacity:100}")
+    private int criticalCapacity;
+
+    @Value("${app.scheduler.normal.weight:3}")
+    private int normalWeight;
+
+    @Value("${app.scheduler.normal.capacity:500}")
+    private int normalCapacity;
+
+    @Value("${app.scheduler.background.weight:1}")
+    private int backgroundWeight;
+
+    @Value("${app.scheduler.background.capacity:1000}")
+    private int backgroundCapacity;
+
+    private static final ThreadLocal<Long> QUEUE_WAIT = new ThreadLocal<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition workAvailable = lock.newCondition();
+    private final Map<ControlButton.Priority, Lane> lanes = new EnumMap<>(ControlButton.Priority.class);
+    private final List<Thread> threads = new ArrayList<>();
+    private int runningNonCritical;
+    private volatile boolean shutdown;
+
+    @PostConstruct
+    void start() {
+        lanes.put(ControlButton.Priority.CRITICAL, new Lane(ControlButton.Priority.CRITICAL, criticalWeight, criticalCapacity));
+        lanes.put(ControlButton.Priority.NORMAL, new Lane(ControlButton.Priority.NORMAL, normalWeight, normalCapacity));
+        lanes.put(ControlButton.Priority.BACKGROUND, new Lane(ControlButton.Priority.BACKGROUND, backgroundWeight, backgroundCapacity));
+        reservedCriticalWorkers = Math.min(reservedCriticalWorkers, workers - 1);
+        for (int i = 0; i < workers; i++) {
+            Thread thread = new Thread(this::work, "execution-worker-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        shutdown = true;
+        threads.forEach(Thread::interrupt);
+    }
+
+    // Runs the call on a worker and waits for it; the caller's thread only blocks
+    public <T> T execute(ControlButton.Priority priority, Call<T> call) throws IOException {
+        Task<T> task = new Task<>(priority != null ? priority : ControlButton.Priority.NORMAL, call);
+        lock.lock();
+        try {
+            Lane lane = lanes.get(task.priority);
+            if (lane.queue.size() >= lane.capacity) {
+                lane.rejected++;
+                throw new LaneFullException("The " + task.priority + " execution lane is full; retry later");
+            }
+            lane.queue.addLast(task);
+            workAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            return task.future.get();
+        } catch (InterruptedException e) {
+            task.future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for execution");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+
+    // Milliseconds the current worker's task spent queued, or 0 off the pool
+    public static long currentQueueWaitMs() {
+        Long wait = QUEUE_WAIT.get();
+        return wait != null ? wait : 0;
+    }
+
+    public List<ButtonDTO.LaneStats> getLaneStats() {
+        lock.lock();
+        try {
+            return lanes.values().stream()
+                    .map(lane -> new ButtonDTO.LaneStats(lane.priority, lane.weight, lane.queue.size(), lane.capacity,
+                            lane.running, lane.completed, lane.rejected))
+                    .toList();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void work() {
+        while (!shutdown) {
+            Task<?> task;
+            try {
+                task = take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            QUEUE_WAIT.set((System.nanoTime() - task.enqueuedNanos) / 1_000_000);
+            try {
+                task.run();
+            } finally {
+                QUEUE_WAIT.remove();
+                finished(task);
+            }
+        }
+    }
+
+    private Task<?> take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (true) {
+                Lane lane = select();
+                if (lane != null) {
+                    Task<?> task = lane.queue.pollFirst();
+                    lane.running++;
+                    if (task.priority != ControlButton.Priority.CRITICAL) {
+                        runningNonCritical++;
+                    }
+                    return task;
+                }
+                workAvailable.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void finished(Task<?> task) {
+        lock.lock();
+        try {
+            Lane lane = lanes.get(task.priority);
+            lane.running--;
+            lane.completed++;
+            if (task.priority != ControlButton.Priority.CRITICAL) {
+                runningNonCritical--;
+                // A non-critical slot opened up
+                workAvailable.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Called with the lock held
+    private Lane select() {
+        boolean nonCriticalAllowed = runningNonCritical < workers - reservedCriticalWorkers;
+        List<Lane> eligible = new ArrayList<>(lanes.size());
+        for (Lane lane : lanes.values()) {
+            if (!lane.queue.isEmpty() && (lane.priority == ControlButton.Priority.CRITICAL || nonCriticalAllowed)) {
+                eligible.add(lane);
+            }
+        }
+        if (eligible.isEmpty()) {
+            return null;
+        }
+
+        // Starvation protection: the oldest task past the threshold goes first
+        long starvedBefore = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(starvationThresholdMs);
+        Lane oldest = null;
+        for (Lane lane : eligible) {
+            long enqueued = lane.queue.peekFirst().enqueuedNanos;
+            if (enqueued < starvedBefore && (oldest == null || enqueued < oldest.queue.peekFirst().enqueuedNanos)) {
+                oldest = lane;
+            }
+        }
+        if (oldest != null) {
+            return oldest;
+        }
+
+        // Smooth weighted round-robin over the lanes with work
+        int totalWeight = 0;
+        Lane best = null;
+        for (Lane lane : eligible) {
+            lane.currentWeight += lane.weight;
+            totalWeight += lane.weight;
+            if (best == null || lane.currentWeight > best.currentWeight) {
+                best = lane;
+            }
+        }
+        best.currentWeight -= totalWeight;
+        return best;
+    }
+
+    @FunctionalInterface
+    public interface Call<T> {
+        T call() throws IOException;
+    }
+
+    public static class LaneFullException extends RuntimeException {
+        public LaneFullException(String message) {
+            super(message);
+        }
+    }
+
+    private static class Lane {
+        private final ControlButton.Priority priority;
+        private final int weight;
+        private final int capacity;
+        private final ArrayDeque<Task<?>> queue = new ArrayDeque<>();
+        private int currentWeight;
+        private int running;
+        private long completed;
+        private long rejected;
+
+        Lane(ControlButton.Priority priority, int weight, int capacity) {
+            this.priority = priority;
+            this.weight = weight;
+            this.capacity = capacity;
+        }
+    }
+
+    private static class Task<T> {
+        private final ControlButton.Priority priority;
+        private final long enqueuedNanos = System.nanoTime();
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private final Call<T> call;
+
+        Task(ControlButton.Priority priority, Call<T> call) {
+            this.priority = priority;
+            this.call = call;
+        }
+
+        void run() {
+            if (future.isDone()) {
+                return;
+            }
+            T result;
+            try {
+                result = call.call();
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+                return;
+            }
+            // The caller was interrupted and cancelled the future, so nobody else will close
+            // the result (an OkHttp Response holding a pooled connection)
+            if (!future.complete(result) && result instanceof Closeable closeable) {
+                try {
+                    closeable.close();
+                } catch (IOException e) {
+                    log.debug("Closing an abandoned execution result failed: {}", e.getMessage());
+                }
+            }
+        }
+    }
+}
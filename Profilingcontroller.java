@@ -0,0 +1,71 @@
+package com.example.controlpanel.controller;
+
+import com.example.controlpanel.dto.ButtonDTO;
+import com.example.controlpanel.profiling.JfrRecordingService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+// Admin-only JFR control for capturing a profile during an incident
+@RestController
+@RequestMapping("/control-panel/admin/profiling")
+@PreAuthorize("hasRole('ADMIN')")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "${app.cors.allowed-origins}")
+public class ProfilingController {
+
+    private final JfrRecordingService recordingService;
+
+    @GetMapping("/recordings")
+    public ResponseEntity<List<ButtonDTO.RecordingInfo>> getRecordings() {
+        return ResponseEntity.ok(recordingService.list());
+    }
+
+    @PostMapping("/recordings")
+    public ResponseEntity<ButtonDTO.RecordingInfo> startRecording(
+            @RequestParam(defaultValue = "60") long durationSeconds,
+            @RequestParam(defaultValue = "profile") String settings) {
+        log.info("Starting {} s JFR recording with '{}' settings", durationSeconds, settings);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(recordingService.start(Duration.ofSeconds(durationSeconds), settings));
+    }
+
+    @PostMapping("/recordings/{id}/stop")
+    public ResponseEntity<ButtonDTO.RecordingInfo> stopRecording(@PathVariable long id) {
+        log.info("Stopping JFR recording {}", id);
+        return ResponseEntity.ok(recordingService.stop(id));
+    }
+
+    @GetMapping("/recordings/{id}/file")
+    public ResponseEntity<Resource> getRecordingFile(@PathVariable long id) {
+        return download(recordingService.getFile(id));
+    }
+
+    // Dumps the continuous ring buffer covering the last few minutes
+    @PostMapping("/snapshot")
+    public ResponseEntity<Resource> dumpSnapshot() {
+        log.info("Dumping JFR snapshot");
+        return download(recordingService.dumpSnapshot());
+    }
+
+    private static ResponseEntity<Resource> download(Path file) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(file.getFileName().toString()).build().toString())
+                .body(new FileSystemResource(file));
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.controlpanel.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+// An upstream body that is already a single valid JSON value. Textual JSON output copies it
+// verbatim instead of parsing it into a tree and serializing that again. Binary formats
+// (CBOR) and token buffers cannot take raw text, so they get its tokens re-encoded.
+@JsonSerialize(using = RawJson.Serializer.class)
+public record RawJson(String json) {
+
+    static class Serializer extends StdSerializer<RawJson> {
+
+        Serializer() {
+            super(RawJson.class);
+        }
+
+        @Override
+        public void serialize(RawJson value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            // Only textual generators lack native binary support
+            if (!gen.canWriteBinaryNatively()) {
+                gen.writeRawValue(value.json());
+                return;
+            }
+            try (JsonParser parser = provider.getConfig().getFactory().createParser(value.json())) {
+                parser.nextToken();
+                gen.copyCurrentStructure(parser);
+            }
+        }
+    }
+}
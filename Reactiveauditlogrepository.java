@@ -0,0 +1,19 @@
+package com.example.controlpanel.reactive;
+
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface ReactiveAuditLogRepository extends ReactiveCrudRepository<AuditLogRow, Long> {
+
+    String SELECT_AUDIT = "SELECT id, button_id, executed_by, executed_at, trace_id, action, status, " +
+            "error_message, execution_time_ms FROM audit_logs ";
+
+    @Query(SELECT_AUDIT + "WHERE button_id = :buttonId ORDER BY executed_at DESC")
+    Flux<AuditLogRow> streamByButtonId(Long buttonId);
+
+    @Query(SELECT_AUDIT + "WHERE executed_by = :executedBy ORDER BY executed_at DESC")
+    Flux<AuditLogRow> streamByExecutedBy(String executedBy);
+}
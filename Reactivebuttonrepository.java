@@ -0,0 +1,23 @@
+package com.example.controlpanel.reactive;
+
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface ReactiveButtonRepository extends ReactiveCrudRepository<ButtonRow, Long> {
+
+    String SELECT_BUTTON = "SELECT id, label, icon, action_type, target_endpoint, http_method, " +
+            "headers::text AS headers, payload_parameters::text AS payload_parameters, credential_provider, " +
+            "expected_output_format, validation_enabled, validation_schema::text AS validation_schema, " +
+            "preview_enabled, created_by, created_at, updated_at, last_executed_at, category, priority, active, " +
+            "workflow_steps::text AS workflow_steps, response_projection::text AS response_projection " +
+            "FROM control_buttons ";
+
+    @Query(SELECT_BUTTON + "ORDER BY id")
+    Flux<ButtonRow> streamAll();
+
+    @Query(SELECT_BUTTON + "WHERE active = TRUE ORDER BY id")
+    Flux<ButtonRow> streamActive();
+}
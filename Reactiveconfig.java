@@ -0,0 +1,54 @@
+package com.example.controlpanel.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Option;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Configuration
+public class ReactiveConfig {
+
+    // R2DBC contributes a ReactiveTransactionManager; @Transactional in the services means JPA
+    @Bean
+    @Primary
+    public PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+        return new JpaTransactionManager(entityManagerFactory);
+    }
+
+    // R2dbcAutoConfiguration is excluded: a ConnectionFactory bean makes the DataSource
+    // auto-configuration back off, so it only exists when the reactive path is switched on
+    @Configuration
+    @ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+    @EnableConfigurationProperties(R2dbcProperties.class)
+    @EnableR2dbcRepositories(basePackages = "com.example.controlpanel.reactive")
+    static class ReactiveRepositories {
+
+        @Bean(destroyMethod = "dispose")
+        public ConnectionPool connectionFactory(R2dbcProperties properties) {
+            ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(properties.getUrl()).mutate()
+                    .option(ConnectionFactoryOptions.USER, properties.getUsername())
+                    .option(ConnectionFactoryOptions.PASSWORD, properties.getPassword());
+            properties.getProperties().forEach((key, value) -> options.option(Option.valueOf(key), value));
+            ConnectionFactory factory = ConnectionFactories.get(options.build());
+
+            R2dbcProperties.Pool pool = properties.getPool();
+            return new ConnectionPool(ConnectionPoolConfiguration.builder(factory)
+                    .initialSize(pool.getInitialSize())
+                    .maxSize(pool.getMaxSize())
+                    .maxIdleTime(pool.getMaxIdleTime())
+                    .build());
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.controlpanel.controller;
+
+import com.example.controlpanel.dto.ButtonDTO;
+import com.example.controlpanel.service.ReactiveQueryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+// NDJSON streams are written one element per demand, so slow clients back-pressure the DB cursor
+@RestController
+@RequestMapping("/control-panel/stream")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "${app.cors.allowed-origins}")
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+public class ReactiveControlPanelController {
+
+    private final ReactiveQueryService queryService;
+
+    @GetMapping(value = "/buttons", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ButtonDTO.ButtonResponse> streamButtons(
+            @RequestParam(defaultValue = "false") boolean activeOnly) {
+        return queryService.streamButtons(activeOnly);
+    }
+
+    @GetMapping(value = "/button/{id}/audit", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ButtonDTO.AuditLogResponse> streamAuditLogs(@PathVariable Long id) {
+        return queryService.streamAuditLogs(id);
+    }
+
+    @GetMapping(value = "/audit", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ButtonDTO.AuditLogResponse> streamAuditLogsByUser(@RequestParam(required = false) String executedBy) {
+        return queryService.streamAuditLogsByUser(executedBy);
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.controlpanel.service;
+
+import com.example.controlpanel.dto.ButtonDTO;
+import com.example.controlpanel.entity.ControlButton;
+import com.example.controlpanel.entity.Role;
+import com.example.controlpanel.reactive.AuditLogRow;
+import com.example.controlpanel.reactive.ButtonRow;
+import com.example.controlpanel.reactive.ReactiveAuditLogRepository;
+import com.example.controlpanel.reactive.ReactiveButtonRepository;
+import com.example.controlpanel.repository.ControlButtonRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Non-blocking read path for listing buttons and audit history; writes stay on JPA
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+public class ReactiveQueryService {
+
+    private static final TypeReference<Map<String, String>> STRING_MAP = new TypeReference<>() {};
+    private static final TypeReference<Map<String, Object>> OBJECT_MAP = new TypeReference<>() {};
+    private static final TypeReference<List<ControlButton.WorkflowStep>> STEP_LIST = new TypeReference<>() {};
+    private static final TypeReference<List<String>> STRING_LIST = new TypeReference<>() {};
+
+    private final ReactiveButtonRepository buttonRepository;
+    private final ReactiveAuditLogRepository auditLogRepository;
+    private final ControlButtonRepository controlButtonRepository;
+    private final ObjectMapper objectMapper;
+    private final ButtonMapper buttonMapper;
+    private final PermissionService permissionService;
+
+    public Flux<ButtonDTO.ButtonResponse> streamButtons(boolean activeOnly) {
+        Flux<ButtonRow> rows = activeOnly ? buttonRepository.streamActive() : buttonRepository.streamAll();
+        return rows.map(this::convertToResponse);
+    }
+
+    // Access is checked on the request thread, before the stream is returned, so a denial is
+    // an ordinary 403 and not an error signal after the NDJSON response has been committed
+    public Flux<ButtonDTO.AuditLogResponse> streamAuditLogs(Long buttonId) {
+        ControlButton button = controlButtonRepository.findById(buttonId)
+                .orElseThrow(() -> new RuntimeException("Button not found with id: " + buttonId));
+        permissionService.check(Role.Permission.EXECUTE, button);
+        return auditLogRepository.streamByButtonId(buttonId).map(this::convertToAuditResponse);
+    }
+
+    // Without executedBy the caller's own history; another user's only for ADMIN
+    public Flux<ButtonDTO.AuditLogResponse> streamAuditLogsByUser(String executedBy) {
+        Authentication caller = SecurityContextHolder.getContext().getAuthentication();
+        String user = executedBy != null ? executedBy : caller.getName();
+        boolean admin = caller.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+        if (!user.equals(caller.getName()) && !admin) {
+            throw new AccessDeniedException("Audit history of " + user + " is not visible to " + caller.getName());
+        }
+        return auditLogRepository.streamByExecutedBy(user).map(this::convertToAuditResponse);
+    }
+
+    // A detached ControlButton, so both read paths go through the same ButtonMapper
+    private ButtonDTO.ButtonResponse convertToResponse(ButtonRow row) {
+        ControlButton button = new ControlButton();
+        button.setId(row.getId());
+        button.setLabel(row.getLabel());
+        button.setIcon(row.getIcon());
+        button.setActionType(row.getActionType());
+        button.setTargetEndpoint(row.getTargetEndpoint());
+        button.setHttpMethod(row.getHttpMethod());
+        button.setHeaders(readJson(row.getHeaders(), STRING_MAP, HashMap::new));
+        button.setPayloadParameters(readJson(row.getPayloadParameters(), OBJECT_MAP, HashMap::new));
+        button.setCredentialProvider(row.getCredentialProvider());
+        button.setExpectedOutputFormat(row.getExpectedOutputFormat());
+        button.setValidationEnabled(row.getValidationEnabled());
+        button.setValidationSchema(row.getValidationSchema());
+        button.setPreviewEnabled(row.getPreviewEnabled());
+        button.setCreatedBy(row.getCreatedBy());
+        button.setCreatedAt(row.getCreatedAt());
+        button.setUpdatedAt(row.getUpdatedAt());
+        button.setLastExecutedAt(row.getLastExecutedAt());
+        button.setCategory(row.getCategory());
+        button.setPriority(row.getPriority());
+        button.setActive(row.getActive());
+        button.setWorkflowSteps(readJson(row.getWorkflowSteps(), STEP_LIST, () -> null));
+        button.setResponseProjection(readJson(row.getResponseProjection(), STRING_LIST, () -> null));
+        return buttonMapper.toResponse(button);
+    }
+
+    // Bodies are not streamed; they are resolved through GET /control-panel/button/{id}/audit
+    private ButtonDTO.AuditLogResponse convertToAuditResponse(AuditLogRow row) {
+        ButtonDTO.AuditLogResponse response = new ButtonDTO.AuditLogResponse();
+        response.setId(row.getId());
+        response.setButtonId(row.getButtonId());
+        response.setExecutedBy(row.getExecutedBy());
+        response.setExecutedAt(row.getExecutedAt());
+        response.setTraceId(row.getTraceId());
+        response.setAction(row.getAction());
+        response.setStatus(row.getStatus());
+        response.setErrorMessage(row.getErrorMessage());
+        response.setExecutionTimeMs(row.getExecutionTimeMs());
+        return response;
+    }
+
+    private <T> T readJson(String json, TypeReference<T> type, Supplier<T> empty) {
+        if (json == null || json.isEmpty()) {
+            return empty.get();
+        }
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            log.error("Error converting JSON column", e);
+            return empty.get();
+        }
+    }
+}
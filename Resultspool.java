@@ -0,0 +1,277 @@
+package com.example.controlpanel.service;
+
+import com.example.controlpanel.dto.ButtonDTO;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+// Spools execution results larger than the threshold to temp files so they never sit in heap.
+// Results are read back as byte ranges, line pages (memory-mapped, via a sparse line index)
+// or JSON array element pages (streaming parser, resumed from element checkpoints recorded
+// as pages are read), and removed once their TTL expires.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ResultSpool {
+
+    private static final int LINE_CHECKPOINT = 1024;
+    private static final int MAP_WINDOW = 16 * 1024 * 1024;
+    private static final int MAX_LINE_BYTES = 64 * 1024;
+    private static final int ELEMENT_CHECKPOINT = 1024;
+    // Larger requests are cut down to this; clients page on with hasMore
+    private static final int MAX_PAGE = 200;
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.spool.threshold-bytes:1048576}")
+    private int thresholdBytes;
+
+    @Value("${app.spool.directory:${java.io.tmpdir}/control-panel-spool}")
+    private Path directory;
+
+    @Value("${app.spool.ttl:PT30M}")
+    private Duration ttl;
+
+    // Caps per spooled result and across all live ones, so an endless body cannot fill the volume
+    @Value("${app.spool.max-bytes:1073741824}")
+    private long maxBytes;
+
+    @Value("${app.spool.max-total-bytes:10737418240}")
+    private long maxTotalBytes;
+
+    private final Map<String, SpoolEntry> entries = new ConcurrentHashMap<>();
+    // Bytes on disk for live entries plus those being written
+    private final AtomicLong totalBytes = new AtomicLong();
+
+    @PostConstruct
+    void init() throws IOException {
+        Files.createDirectories(directory);
+        // Handles do not survive a restart, so leftovers are unreachable
+        try (Stream<Path> leftovers = Files.list(directory)) {
+            leftovers.forEach(this::deleteQuietly);
+        }
+    }
+
+    // Reads the body into memory when it stays under the threshold, otherwise spills it to disk
+    public Capture capture(InputStream body, String owner) throws IOException {
+        byte[] head = body.readNBytes(thresholdBytes + 1);
+        if (head.length <= thresholdBytes) {
+            return new Capture(new String(head, StandardCharsets.UTF_8), null, head.length);
+        }
+
+        String handle = UUID.randomUUID().toString();
+        Path file = directory.resolve(handle + ".spool");
+        LineIndexer lines = new LineIndexer();
+        long size = 0;
+        long reserved = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            byte[] chunk = head;
+            int length = head.length;
+            while (length > 0) {
+                if (size + length > maxBytes) {
+                    throw new SpoolLimitException("Response body exceeds app.spool.max-bytes ("
+                            + maxBytes + " bytes) and was not stored");
+                }
+                if (totalBytes.addAndGet(length) > maxTotalBytes) {
+                    totalBytes.addAndGet(-length);
+                    throw new SpoolLimitException("Result spool is full (app.spool.max-total-bytes = "
+                            + maxTotalBytes + " bytes); retry once older results expire");
+                }
+                reserved += length;
+                lines.accept(chunk, length, size);
+                channel.write(ByteBuffer.wrap(chunk, 0, length));
+                size += length;
+                if (chunk == head) {
+                    chunk = new byte[64 * 1024];
+                }
+                length = body.read(chunk);
+            }
+        } catch (IOException e) {
+            totalBytes.addAndGet(-reserved);
+            deleteQuietly(file);
+            throw e;
+        }
+
+        SpoolEntry entry = new SpoolEntry(handle, owner, file, size, lines.checkpoints(),
+                new ConcurrentSkipListMap<>(), Instant.now().plus(ttl));
+        entries.put(handle, entry);
+        log.debug("Spooled {} bytes to {}", size, file);
+        return new Capture(null, entry, size);
+    }
+
+    public SpoolEntry get(String handle, String owner) {
+        SpoolEntry entry = entries.get(handle);
+        if (entry == null || entry.expiresAt().isBefore(Instant.now()) || !entry.owner().equals(owner)) {
+            throw new RuntimeException("Result not found or expired: " + handle);
+        }
+        return entry;
+    }
+
+    public ButtonDTO.ResultPage readLines(SpoolEntry entry, long from, int count) {
+        if (from < 0 || count <= 0) {
+            throw new IllegalArgumentException("from must be >= 0 and count > 0");
+        }
+        count = Math.min(count, MAX_PAGE);
+        List<Object> lines = new ArrayList<>();
+        int checkpoint = (int) Math.min(from / LINE_CHECKPOINT, entry.lineCheckpoints().length - 1);
+        long line = (long) checkpoint * LINE_CHECKPOINT;
+        long offset = entry.lineCheckpoints()[checkpoint];
+
+        ByteArrayOutputStream current = new ByteArrayOutputStream();
+        try (FileChannel channel = FileChannel.open(entry.file(), StandardOpenOption.READ)) {
+            while (offset < entry.sizeBytes() && lines.size() < count) {
+                long window = Math.min(MAP_WINDOW, entry.sizeBytes() - offset);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, window);
+                while (buffer.hasRemaining() && lines.size() < count) {
+                    byte b = buffer.get();
+                    if (b == '\n') {
+                        if (line >= from) {
+                            lines.add(current.toString(StandardCharsets.UTF_8));
+                        }
+                        current.reset();
+                        line++;
+                    } else if (line >= from && current.size() < MAX_LINE_BYTES) {
+                        current.write(b);
+                    }
+                }
+                offset += window - buffer.remaining();
+            }
+            if (lines.size() < count && line >= from && current.size() > 0) {
+                lines.add(current.toString(StandardCharsets.UTF_8));
+                offset = entry.sizeBytes();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new ButtonDTO.ResultPage(entry.handle(), from, lines, offset < entry.sizeBytes(), entry.sizeBytes());
+    }
+
+    public ButtonDTO.ResultPage readElements(SpoolEntry entry, long from, int count) {
+        if (from < 0 || count <= 0) {
+            throw new IllegalArgumentException("from must be >= 0 and count > 0");
+        }
+        count = Math.min(count, MAX_PAGE);
+        List<Object> elements = new ArrayList<>();
+        boolean hasMore = false;
+        // Resume from the nearest checkpoint at or before from. The file is entered mid-array
+        // there, so a '[' is put in front to keep the parser on a well-formed array.
+        Map.Entry<Long, Long> checkpoint = entry.elementCheckpoints().floorEntry(from);
+        long index = checkpoint != null ? checkpoint.getKey() : 0;
+        long base = checkpoint != null ? checkpoint.getValue() - 1 : 0;
+        try (FileChannel channel = FileChannel.open(entry.file(), StandardOpenOption.READ)) {
+            InputStream in = Channels.newInputStream(channel.position(checkpoint != null ? checkpoint.getValue() : 0));
+            if (checkpoint != null) {
+                in = new SequenceInputStream(new ByteArrayInputStream(new byte[]{'['}), in);
+            }
+            try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    throw new IllegalArgumentException("Result is not a JSON array");
+                }
+                JsonToken token;
+                while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+                    if (elements.size() == count) {
+                        hasMore = true;
+                        break;
+                    }
+                    if (index > 0 && index % ELEMENT_CHECKPOINT == 0) {
+                        entry.elementCheckpoints().putIfAbsent(index, base + parser.getTokenLocation().getByteOffset());
+                    }
+                    if (index++ < from) {
+                        parser.skipChildren();
+                    } else {
+                        elements.add(parser.readValueAs(Object.class));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Result is not a valid JSON array: " + e.getMessage());
+        }
+        return new ButtonDTO.ResultPage(entry.handle(), from, elements, hasMore, entry.sizeBytes());
+    }
+
+    @Scheduled(fixedDelayString = "${app.spool.cleanup-interval-ms:60000}")
+    public void removeExpired() {
+        Instant now = Instant.now();
+        entries.values().removeIf(entry -> {
+            if (entry.expiresAt().isAfter(now)) {
+                return false;
+            }
+            deleteQuietly(entry.file());
+            totalBytes.addAndGet(-entry.sizeBytes());
+            return true;
+        });
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete spool file {}: {}", file, e.getMessage());
+        }
+    }
+
+    public record Capture(String inline, SpoolEntry spooled, long sizeBytes) {
+    }
+
+    public static class SpoolLimitException extends IOException {
+        public SpoolLimitException(String message) {
+            super(message);
+        }
+    }
+
+    // elementCheckpoints maps every ELEMENT_CHECKPOINT-th array index to the byte offset of
+    // its first token; filled in by readElements, as the body is not parsed when captured
+    public record SpoolEntry(String handle, String owner, Path file, long sizeBytes, long[] lineCheckpoints,
+                             NavigableMap<Long, Long> elementCheckpoints, Instant expiresAt) {
+    }
+
+    // Records the byte offset of every LINE_CHECKPOINT-th line start
+    private static class LineIndexer {
+        private long[] checkpoints = new long[16];
+        private int size = 1;
+        private long lines;
+
+        void accept(byte[] chunk, int length, long baseOffset) {
+            for (int i = 0; i < length; i++) {
+                if (chunk[i] == '\n' && ++lines % LINE_CHECKPOINT == 0) {
+                    if (size == checkpoints.length) {
+                        checkpoints = Arrays.copyOf(checkpoints, size * 2);
+                    }
+                    checkpoints[size++] = baseOffset + i + 1;
+                }
+            }
+        }
+
+        long[] checkpoints() {
+            return Arrays.copyOf(checkpoints, size);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.controlpanel.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Entity
+@Table(name = "app_roles")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Role {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Also granted as the Spring authority ROLE_<name>, which URL rules check
+    @Column(nullable = false, unique = true, length = 50)
+    private String name;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "app_role_grants", joinColumns = @JoinColumn(name = "role_id"))
+    private List<Grant> grants = new ArrayList<>();
+
+    public enum Permission {
+        EXECUTE, EDIT
+    }
+
+    // Scope: one button (buttonId), one category, or every button when both are null
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Grant {
+        @Column(nullable = false, length = 20)
+        @Enumerated(EnumType.STRING)
+        private Permission permission;
+
+        private Long buttonId;
+
+        @Column(length = 100)
+        private String category;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.controlpanel.repository;
+
+import com.example.controlpanel.entity.Role;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RoleRepository extends JpaRepository<Role, Long> {
+    Optional<Role> findByName(String name);
+    List<Role> findByNameIn(List<String> names);
+}
@@ -0,0 +1,33 @@
+package com.example.controlpanel.config;
+
+import com.example.controlpanel.tracing.Tracer;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// Replaces spring.jpa.show-sql, which prints every statement synchronously to stdout. Logs a
+// sample of the SQL Hibernate prepares, as written with ? placeholders (bind values are never
+// logged), through the normal logging pipeline at DEBUG on com.example.controlpanel.sql.
+public class SampledSqlLogger implements StatementInspector {
+
+    private static final Logger log = LoggerFactory.getLogger("com.example.controlpanel.sql");
+
+    private final double sampleRate;
+    private final Tracer tracer;
+
+    public SampledSqlLogger(double sampleRate, Tracer tracer) {
+        this.sampleRate = sampleRate;
+        this.tracer = tracer;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        if (sampleRate > 0 && log.isDebugEnabled()
+                && (sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate)) {
+            log.debug("[trace {}] {}", tracer.currentTraceId(), sql);
+        }
+        return sql;
+    }
+}
@@ -7,12 +7,8 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.core.userdetails.User;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -35,9 +31,16 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .authorizeHttpRequests(auth -> auth
-                .requestMatchers("/api/control-panel/buttons").hasAnyRole("USER", "ADMIN")
-                .requestMatchers("/api/control-panel/button/**").hasAnyRole("USER", "ADMIN")
-                .requestMatchers("/api/control-panel/execute/**").hasAnyRole("USER", "ADMIN")
+                // Paths are matched without the /api context path
+                .requestMatchers("/control-panel/buttons").hasAnyRole("USER", "ADMIN")
+                .requestMatchers("/control-panel/buttons/**").hasAnyRole("USER", "ADMIN")
+                .requestMatchers("/control-panel/button/**").hasAnyRole("USER", "ADMIN")
+                .requestMatchers("/control-panel/execute/**").hasAnyRole("USER", "ADMIN")
+                .requestMatchers("/control-panel/stream/**").hasAnyRole("USER", "ADMIN")
+                .requestMatchers("/control-panel/result/**").hasAnyRole("USER", "ADMIN")
+                .requestMatchers("/control-panel/jobs/**").hasAnyRole("USER", "ADMIN")
+                .requestMatchers("/control-panel/traces/**").hasRole("ADMIN")
+                .requestMatchers("/control-panel/admin/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             )
             .httpBasic(httpBasic -> {})
@@ -54,6 +57,7 @@ public class SecurityConfig {
         configuration.setAllowedOrigins(Arrays.asList(allowedOrigins.split(",")));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
+        configuration.setExposedHeaders(Arrays.asList("traceparent", "Location", "ETag"));
         configuration.setAllowCredentials(true);
         
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -61,24 +65,7 @@ public class SecurityConfig {
         return source;
     }
 
-    @Bean
-    public UserDetailsService userDetailsService() {
-        // In production, use database-backed user service
-        UserDetails user = User.builder()
-                .username("user")
-                .password(passwordEncoder().encode("password"))
-                .roles("USER")
-                .build();
-
-        UserDetails admin = User.builder()
-                .username("admin")
-                .password(passwordEncoder().encode("admin"))
-                .roles("ADMIN", "USER")
-                .build();
-
-        return new InMemoryUserDetailsManager(user, admin);
-    }
-
+    // Users come from PermissionService (app_users), the only UserDetailsService bean
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
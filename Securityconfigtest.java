@@ -0,0 +1,70 @@
+package com.example.controlpanel.config;
+
+import com.example.controlpanel.controller.ControlPanelController;
+import com.example.controlpanel.controller.ProfilingController;
+import com.example.controlpanel.profiling.JfrRecordingService;
+import com.example.controlpanel.service.ButtonTransferService;
+import com.example.controlpanel.service.ControlButtonService;
+import com.example.controlpanel.tracing.SpanExporter;
+import com.example.controlpanel.tracing.Tracer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Admin paths must be closed to USER with the /api context path in front, as in production
+@WebMvcTest(controllers = {ProfilingController.class, ControlPanelController.class})
+@Import({SecurityConfig.class, Tracer.class})
+@TestPropertySource(properties = "app.cors.allowed-origins=http://localhost:4200")
+class SecurityConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private JfrRecordingService recordingService;
+
+    @MockBean
+    private ControlButtonService buttonService;
+
+    @MockBean
+    private ButtonTransferService transferService;
+
+    @MockBean
+    private SpanExporter spanExporter;
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void userIsForbiddenFromProfiling() throws Exception {
+        mockMvc.perform(get("/api/control-panel/admin/profiling/recordings").contextPath("/api"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void userIsForbiddenFromAdminStats() throws Exception {
+        mockMvc.perform(get("/api/control-panel/admin/concurrency").contextPath("/api"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void adminCanReachProfiling() throws Exception {
+        mockMvc.perform(get("/api/control-panel/admin/profiling/recordings").contextPath("/api"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void userCanListButtons() throws Exception {
+        mockMvc.perform(get("/api/control-panel/buttons/search").contextPath("/api").param("q", "deploy"))
+                .andExpect(status().isOk());
+    }
+}
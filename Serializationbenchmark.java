@@ -0,0 +1,113 @@
+package com.example.controlpanel.benchmark;
+
+import com.example.controlpanel.dto.ButtonDTO;
+import com.example.controlpanel.dto.RawJson;
+import com.example.controlpanel.entity.ControlButton;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+// Serialization throughput of the response paths: the button list as plain reflective
+// Jackson, with Blackbird, through a precomputed writer and as CBOR, and an upstream JSON
+// body parsed and written again versus passed through as RawJson. Runs as a single source
+// file against the compiled classes (see serialization-benchmark.sh):
+//
+//   java -cp target/classes:<dependencies> -Dbuttons=200 -Dseconds=5 Serializationbenchmark.java
+public class SerializationBenchmark {
+
+    @FunctionalInterface
+    interface Task {
+        Object run() throws Exception;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int buttons = Integer.getInteger("buttons", 200);
+        int seconds = Integer.getInteger("seconds", 5);
+
+        ObjectMapper plain = new ObjectMapper().registerModule(new JavaTimeModule());
+        ObjectMapper blackbird = new ObjectMapper().registerModule(new JavaTimeModule()).registerModule(new BlackbirdModule());
+        ObjectMapper cbor = new CBORMapper().registerModule(new JavaTimeModule()).registerModule(new BlackbirdModule());
+        List<ButtonDTO.ButtonResponse> list = buttonList(buttons);
+        ObjectWriter listWriter = blackbird.writerFor(blackbird.getTypeFactory()
+                .constructCollectionType(List.class, ButtonDTO.ButtonResponse.class));
+
+        String upstream = plain.writeValueAsString(list);
+        ObjectWriter resultWriter = blackbird.writerFor(ButtonDTO.ExecuteButtonResponse.class);
+
+        System.out.printf("%d buttons, JSON %d bytes, CBOR %d bytes, %d s per case%n%n",
+                buttons, upstream.length(), cbor.writeValueAsBytes(list).length, seconds);
+        System.out.printf("%-28s %12s %12s%n", "case", "ops/s", "MB/s");
+        measure("list json plain", seconds, () -> plain.writeValueAsBytes(list));
+        measure("list json blackbird", seconds, () -> blackbird.writeValueAsBytes(list));
+        measure("list json precomputed", seconds, () -> listWriter.writeValueAsBytes(list));
+        measure("list cbor", seconds, () -> cbor.writeValueAsBytes(list));
+        measure("upstream parse+write", seconds,
+                () -> resultWriter.writeValueAsBytes(result(blackbird.readValue(upstream, Object.class))));
+        measure("upstream raw pass-through", seconds,
+                () -> resultWriter.writeValueAsBytes(result(new RawJson(upstream))));
+    }
+
+    private static void measure(String name, int seconds, Task task) throws Exception {
+        // Warm-up, so the JIT has compiled the path before it is timed
+        long warmUntil = System.nanoTime() + 2_000_000_000L;
+        while (System.nanoTime() < warmUntil) {
+            task.run();
+        }
+        long ops = 0;
+        long bytes = 0;
+        long start = System.nanoTime();
+        long end = start + seconds * 1_000_000_000L;
+        long now;
+        do {
+            Object out = task.run();
+            bytes += ((byte[]) out).length;
+            ops++;
+            now = System.nanoTime();
+        } while (now < end);
+        double elapsed = (now - start) / 1e9;
+        System.out.printf("%-28s %12.0f %12.1f%n", name, ops / elapsed, bytes / elapsed / (1024 * 1024));
+    }
+
+    private static ButtonDTO.ExecuteButtonResponse result(Object data) {
+        ButtonDTO.ExecuteButtonResponse response = new ButtonDTO.ExecuteButtonResponse();
+        response.setSuccess(true);
+        response.setMessage("Execution successful");
+        response.setStatusCode(200);
+        response.setExecutionTimeMs(42L);
+        response.setData(data);
+        return response;
+    }
+
+    private static List<ButtonDTO.ButtonResponse> buttonList(int count) {
+        LocalDateTime now = LocalDateTime.now();
+        List<ButtonDTO.ButtonResponse> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ButtonDTO.ButtonResponse button = new ButtonDTO.ButtonResponse();
+            button.setId((long) i);
+            button.setLabel("Button " + i);
+            button.setIcon("play_arrow");
+            button.setActionType(ControlButton.ActionType.REST_API_CALL);
+            button.setTargetEndpoint("https://service-" + (i % 10) + ".internal/api/v1/actions/" + i);
+            button.setHttpMethod(ControlButton.HttpMethod.POST);
+            button.setHeaders(Map.of("Accept", "application/json", "X-Team", "ops"));
+            button.setPayloadParameters(Map.of("environment", "production", "dryRun", false, "retries", 3));
+            button.setExpectedOutputFormat(ControlButton.OutputFormat.JSON);
+            button.setValidationEnabled(false);
+            button.setPreviewEnabled(true);
+            button.setCreatedBy("admin");
+            button.setCreatedAt(now.minusDays(i));
+            button.setUpdatedAt(now.minusHours(i));
+            button.setLastExecutedAt(now.minusMinutes(i));
+            button.setCategory("Category " + (i % 8));
+            button.setPriority(ControlButton.Priority.NORMAL);
+            button.setActive(true);
+            list.add(button);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.controlpanel.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+// Offline span exporter: keeps the most recent spans in memory for /control-panel/traces
+// and, when app.tracing.file is set, appends every span to that file as one JSON line
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SpanExporter {
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.tracing.memory-spans:10000}")
+    private int memorySpans;
+
+    @Value("${app.tracing.file:}")
+    private String file;
+
+    private final ArrayDeque<SpanData> recent = new ArrayDeque<>();
+    private BufferedWriter writer;
+
+    public void export(SpanData span) {
+        synchronized (recent) {
+            if (recent.size() == memorySpans) {
+                recent.removeFirst();
+            }
+            recent.addLast(span);
+        }
+        if (!file.isBlank()) {
+            writeLine(span);
+        }
+    }
+
+    public List<SpanData> findByTraceId(String traceId) {
+        synchronized (recent) {
+            return recent.stream()
+                    .filter(span -> span.traceId().equals(traceId))
+                    .sorted(Comparator.comparingLong(SpanData::startEpochMicros))
+                    .toList();
+        }
+    }
+
+    // Root spans of the most recent traces, newest first
+    public List<SpanData> recentRoots(int limit) {
+        synchronized (recent) {
+            List<SpanData> roots = new ArrayList<>();
+            Iterator<SpanData> newestFirst = recent.descendingIterator();
+            while (newestFirst.hasNext() && roots.size() < limit) {
+                SpanData span = newestFirst.next();
+                if (span.parentSpanId() == null) {
+                    roots.add(span);
+                }
+            }
+            return roots;
+        }
+    }
+
+    // Spans are flushed in the background rather than on every write
+    @Scheduled(fixedDelayString = "${app.tracing.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        if (writer != null) {
+            try {
+                writer.flush();
+            } catch (IOException e) {
+                log.warn("Could not flush span file {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+
+    private synchronized void writeLine(SpanData span) {
+        try {
+            if (writer == null) {
+                writer = Files.newBufferedWriter(Path.of(file), StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            writer.write(objectMapper.writeValueAsString(span));
+            writer.newLine();
+        } catch (IOException e) {
+            log.warn("Could not write span to {}: {}", file, e.getMessage());
+        }
+    }
+
+    public record SpanData(String traceId, String spanId, String parentSpanId, String name,
+                           long startEpochMicros, long durationMicros, String status,
+                           Map<String, Object> attributes) {
+    }
+}
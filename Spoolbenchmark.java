@@ -0,0 +1,166 @@
+package com.example.controlpanel.benchmark;
+
+import com.example.controlpanel.dto.ButtonDTO;
+import com.example.controlpanel.service.ResultSpool;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+// Heap and latency of the result spool on large bodies: capturing a body streamed from the
+// target, then reading line and element pages near its start, middle and end. The heap held
+// after capture should stay flat as the body grows; a page far into the body is slow on the
+// first read and fast once the line index or element checkpoints let it skip ahead. A heap
+// smaller than the body shows nothing is buffered. Runs as a single source file against the
+// compiled classes (see spool-benchmark.sh):
+//
+//   java -Xmx256m -cp target/classes:<dependencies> -Dsizes=64,256,1024 -Dreads=20 Spoolbenchmark.java
+public class SpoolBenchmark {
+
+    private static final int PAGE = 100;
+
+    @FunctionalInterface
+    interface Read {
+        ButtonDTO.ResultPage page(ResultSpool.SpoolEntry entry, long from, int count);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int reads = Integer.getInteger("reads", 20);
+        Path directory = Files.createTempDirectory("spool-benchmark");
+        ResultSpool spool = new ResultSpool(new ObjectMapper());
+        // Settings come from @Value outside this benchmark; the caps are lifted for large sizes
+        set(spool, "thresholdBytes", 1024 * 1024);
+        set(spool, "directory", directory);
+        set(spool, "ttl", Duration.ofHours(1));
+        set(spool, "maxBytes", Long.MAX_VALUE);
+        set(spool, "maxTotalBytes", Long.MAX_VALUE);
+        Method init = ResultSpool.class.getDeclaredMethod("init");
+        init.setAccessible(true);
+        init.invoke(spool);
+
+        try {
+            for (String size : System.getProperty("sizes", "64,256").split(",")) {
+                long bytes = Long.parseLong(size.trim()) * 1024 * 1024;
+                long baseline = usedAfterGc();
+                long start = System.nanoTime();
+                ResultSpool.Capture capture = spool.capture(new ItemsBody(bytes), "benchmark");
+                double seconds = (System.nanoTime() - start) / 1e9;
+                long held = usedAfterGc() - baseline;
+
+                ResultSpool.SpoolEntry entry = capture.spooled();
+                long elements = ItemsBody.count(entry.sizeBytes());
+                double mb = entry.sizeBytes() / (1024.0 * 1024);
+                System.out.printf("capture %.0f MB (%d elements): %.0f MB/s, %.1f MB heap held%n",
+                        mb, elements, mb / seconds, Math.max(0, held) / (1024.0 * 1024));
+
+                System.out.printf("%-10s %14s %16s %16s%n", "page", "from", "first read ms", "later reads ms");
+                for (long from : new long[]{0, elements / 2, elements - PAGE}) {
+                    // Lines are offset by one: the first line holds the opening '['
+                    report("lines", spool::readLines, entry, from + 1, reads);
+                    report("elements", spool::readElements, entry, from, reads);
+                }
+                System.out.println();
+            }
+        } finally {
+            try (var files = Files.list(directory)) {
+                for (Path file : files.toList()) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    private static void report(String name, Read read, ResultSpool.SpoolEntry entry, long from, int reads) {
+        long start = System.nanoTime();
+        ButtonDTO.ResultPage page = read.page(entry, from, PAGE);
+        double first = (System.nanoTime() - start) / 1e6;
+        if (page.getItems().size() != PAGE) {
+            throw new IllegalStateException(name + " from " + from + " returned " + page.getItems().size() + " items");
+        }
+        start = System.nanoTime();
+        for (int i = 0; i < reads; i++) {
+            read.page(entry, from, PAGE);
+        }
+        double later = (System.nanoTime() - start) / 1e6 / reads;
+        System.out.printf("%-10s %14d %16.1f %16.1f%n", name, from, first, later);
+    }
+
+    private static long usedAfterGc() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static void set(Object target, String field, Object value) throws ReflectiveOperationException {
+        Field declared = target.getClass().getDeclaredField(field);
+        declared.setAccessible(true);
+        declared.set(target, value);
+    }
+
+    // A JSON array of about bytes, one element per line, generated as it is read so the body
+    // itself never sits in heap. Elements are padded to a fixed width to make counts exact.
+    private static class ItemsBody extends InputStream {
+        private static final int WIDTH = 96;
+
+        private final long elements;
+        private long next;
+        private byte[] chunk = "[\n".getBytes(StandardCharsets.UTF_8);
+        private int position;
+
+        ItemsBody(long bytes) {
+            this.elements = count(bytes);
+        }
+
+        static long count(long bytes) {
+            return Math.max(1, (bytes - 2) / (WIDTH + 2));
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (position == chunk.length && !refill()) {
+                return -1;
+            }
+            int n = Math.min(length, chunk.length - position);
+            System.arraycopy(chunk, position, buffer, offset, n);
+            position += n;
+            return n;
+        }
+
+        private boolean refill() {
+            if (next > elements) {
+                return false;
+            }
+            if (next == elements) {
+                chunk = "]\n".getBytes(StandardCharsets.UTF_8);
+            } else {
+                String element = "{\"id\":" + next + ",\"name\":\"item-" + next + "\",\"status\":\""
+                        + (next % 7 == 0 ? "degraded" : "ok") + "\",\"pad\":\"";
+                StringBuilder line = new StringBuilder(element);
+                while (line.length() < WIDTH - 2) {
+                    line.append('x');
+                }
+                line.append("\"}").append(next < elements - 1 ? ",\n" : "\n");
+                chunk = line.toString().getBytes(StandardCharsets.UTF_8);
+            }
+            next++;
+            position = 0;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.example.controlpanel.service;
+
+import com.example.controlpanel.dto.ButtonDTO;
+import com.example.controlpanel.entity.ControlButton;
+import com.example.controlpanel.repository.ControlButtonRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.NoRouteToHostException;
+import java.net.Socket;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+// Periodically checks whether the targets of active buttons are reachable, so the button
+// list can show it and executions against a known-down target can warn or fail fast
+// instead of waiting for a connect timeout. Probes are deduplicated by origin, spread over
+// the jitter window and run on a small fixed pool. A target turns DOWN after
+// failure-threshold consecutive failed probes and UP on the first success. Connection
+// failures and responses seen by real executions update the same state.
+@Component
+@Slf4j
+public class TargetHealthProber {
+
+    private final ControlButtonRepository buttonRepository;
+    private final OkHttpClient probeClient;
+
+    @Value("${app.health.enabled:true}")
+    private boolean enabled;
+
+    // TCP only connects; HEAD also proves the server answers HTTP
+    @Value("${app.health.mode:TCP}")
+    private Mode mode;
+
+    @Value("${app.health.workers:4}")
+    private int workers;
+
+    @Value("${app.health.jitter-ms:5000}")
+    private long jitterMs;
+
+    @Value("${app.health.timeout:PT2S}")
+    private Duration timeout;
+
+    @Value("${app.health.failure-threshold:2}")
+    private int failureThreshold;
+
+    @Value("${app.health.max-hosts:200}")
+    private int maxHosts;
+
+    @Value("${app.health.down-policy:WARN}")
+    private DownPolicy downPolicy;
+
+    private final Map<String, HostHealth> hosts = new ConcurrentHashMap<>();
+    private ScheduledThreadPoolExecutor probeExecutor;
+
+    public TargetHealthProber(ControlButtonRepository buttonRepository, OkHttpClient targetHttpClient,
+                              @Value("${app.health.timeout:PT2S}") Duration timeout) {
+        this.buttonRepository = buttonRepository;
+        this.probeClient = targetHttpClient.newBuilder().callTimeout(timeout).build();
+    }
+
+    @PostConstruct
+    void init() {
+        probeExecutor = new ScheduledThreadPoolExecutor(workers, runnable -> {
+            Thread thread = new Thread(runnable, "target-probe");
+            thread.setDaemon(true);
+            return thread;
+        });
+        probeExecutor.setRemoveOnCancelPolicy(true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        probeExecutor.shutdownNow();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.health.interval-ms:30000}", initialDelayString = "${app.health.interval-ms:30000}")
+    public void probeActive() {
+        if (!enabled) {
+            return;
+        }
+        Set<String> active = buttonRepository.findByActiveTrue().stream()
+                .filter(button -> button.getActionType() == ControlButton.ActionType.REST_API_CALL)
+                .map(button -> ConnectionWarmer.originOf(button.getTargetEndpoint()))
+                .filter(Objects::nonNull)
+                .distinct()
+                .limit(maxHosts)
+                .collect(Collectors.toSet());
+        hosts.keySet().retainAll(active);
+        for (String origin : active) {
+            HostHealth host = hosts.computeIfAbsent(origin, HostHealth::new);
+            // At most one probe per origin is pending, which bounds the executor queue
+            if (host.probing.compareAndSet(false, true)) {
+                long delay = jitterMs > 0 ? ThreadLocalRandom.current().nextLong(jitterMs) : 0;
+                probeExecutor.schedule(() -> probe(host), delay, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    public Health statusOf(String url) {
+        String origin = ConnectionWarmer.originOf(url);
+        HostHealth host = origin != null ? hosts.get(origin) : null;
+        return host != null ? host.status : Health.UNKNOWN;
+    }
+
+    // Called before a call is queued; throws when the policy is FAIL_FAST and the target is down
+    public boolean checkBeforeCall(String url) {
+        if (downPolicy == DownPolicy.IGNORE || statusOf(url) != Health.DOWN) {
+            return false;
+        }
+        if (downPolicy == DownPolicy.FAIL_FAST) {
+            throw new TargetDownException("Target " + ConnectionWarmer.originOf(url)
+                    + " is unreachable according to the last health checks; retry later");
+        }
+        log.warn("Calling {} although the last health checks found it unreachable", url);
+        return true;
+    }
+
+    // Any response proves the target is reachable
+    public void recordResponse(String url) {
+        HostHealth host = hostOf(url);
+        if (host != null) {
+            succeeded(host, null);
+        }
+    }
+
+    // Only failures to reach the host count; read timeouts say nothing about reachability
+    public void recordFailure(String url, IOException e) {
+        HostHealth host = hostOf(url);
+        if (host != null && isUnreachable(e)) {
+            failed(host, e.getMessage());
+        }
+    }
+
+    // Part of the button list ETag. Derived from the statuses themselves rather than a local
+    // counter, so nodes that see the same statuses produce the same tag behind a load balancer.
+    // Order-independent: a sum of mixed per-origin hashes.
+    public long statusHash() {
+        long hash = 0;
+        for (HostHealth host : hosts.values()) {
+            long h = host.origin.hashCode() * 31L + host.status.ordinal();
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            hash += h;
+        }
+        return hash;
+    }
+
+    public List<ButtonDTO.TargetHealth> getStatus() {
+        return hosts.values().stream()
+                .map(host -> new ButtonDTO.TargetHealth(host.origin, host.status, host.consecutiveFailures,
+                        host.lastCheckedAt, host.latencyMs, host.lastError))
+                .sorted(Comparator.comparing(ButtonDTO.TargetHealth::getHost))
+                .collect(Collectors.toList());
+    }
+
+    private void probe(HostHealth host) {
+        long startNanos = System.nanoTime();
+        try {
+            if (mode == Mode.HEAD) {
+                Request request = new Request.Builder()
+                        .url(host.origin + "/")
+                        .head()
+                        .header("User-Agent", "control-panel-health")
+                        .build();
+                try (Response ignored = probeClient.newCall(request).execute()) {
+                    // Status does not matter, the server answered
+                }
+            } else {
+                HttpUrl url = HttpUrl.get(host.origin);
+                try (Socket socket = new Socket()) {
+                    socket.connect(new InetSocketAddress(url.host(), url.port()), (int) timeout.toMillis());
+                }
+            }
+            succeeded(host, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        } catch (IOException | RuntimeException e) {
+            failed(host, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        } finally {
+            host.probing.set(false);
+        }
+    }
+
+    private void succeeded(HostHealth host, Long latencyMs) {
+        synchronized (host) {
+            if (host.status == Health.DOWN) {
+                log.info("Target {} is reachable again", host.origin);
+            }
+            host.status = Health.UP;
+            host.consecutiveFailures = 0;
+            host.lastError = null;
+            host.lastCheckedAt = Instant.now();
+            if (latencyMs != null) {
+                host.latencyMs = latencyMs;
+            }
+        }
+    }
+
+    private void failed(HostHealth host, String error) {
+        synchronized (host) {
+            host.consecutiveFailures++;
+            host.lastError = error;
+            host.lastCheckedAt = Instant.now();
+            if (host.consecutiveFailures >= failureThreshold && host.status != Health.DOWN) {
+                log.warn("Target {} is unreachable: {}", host.origin, error);
+                host.status = Health.DOWN;
+            }
+        }
+    }
+
+    private HostHealth hostOf(String url) {
+        String origin = ConnectionWarmer.originOf(url);
+        return origin != null ? hosts.get(origin) : null;
+    }
+
+    private static boolean isUnreachable(IOException e) {
+        return e instanceof ConnectException || e instanceof UnknownHostException || e instanceof NoRouteToHostException;
+    }
+
+    public enum Health {
+        UP, DOWN, UNKNOWN
+    }
+
+    public enum Mode {
+        TCP, HEAD
+    }
+
+    public enum DownPolicy {
+        IGNORE, WARN, FAIL_FAST
+    }
+
+    public static class TargetDownException extends RuntimeException {
+        public TargetDownException(String message) {
+            super(message);
+        }
+    }
+
+    private static class HostHealth {
+        private final String origin;
+        private final AtomicBoolean probing = new AtomicBoolean();
+        private volatile Health status = Health.UNKNOWN;
+        private volatile int consecutiveFailures;
+        private volatile Instant lastCheckedAt;
+        private volatile Long latencyMs;
+        private volatile String lastError;
+
+        HostHealth(String origin) {
+            this.origin = origin;
+        }
+    }
+}
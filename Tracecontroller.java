@@ -0,0 +1,35 @@
+package com.example.controlpanel.controller;
+
+import com.example.controlpanel.tracing.SpanExporter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+// Spans held by the in-memory exporter, for finding where an execution spent its time
+@RestController
+@RequestMapping("/control-panel/traces")
+@PreAuthorize("hasRole('ADMIN')")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "${app.cors.allowed-origins}")
+public class TraceController {
+
+    private final SpanExporter spanExporter;
+
+    @GetMapping
+    public ResponseEntity<List<SpanExporter.SpanData>> getRecentTraces(
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(spanExporter.recentRoots(limit));
+    }
+
+    @GetMapping("/{traceId}")
+    public ResponseEntity<List<SpanExporter.SpanData>> getTrace(@PathVariable String traceId) {
+        List<SpanExporter.SpanData> spans = spanExporter.findByTraceId(traceId);
+        if (spans.isEmpty()) {
+            throw new RuntimeException("Trace not found: " + traceId);
+        }
+        return ResponseEntity.ok(spans);
+    }
+}
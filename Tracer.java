@@ -0,0 +1,188 @@
+package com.example.controlpanel.tracing;
+
+import com.example.controlpanel.profiling.ExecutionEvents;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+// Minimal W3C trace-context tracer. The current span lives in a thread local; spans are
+// opened with try-with-resources and handed to the SpanExporter when closed.
+//
+//   try (Tracer.Span span = tracer.startSpan("http.client")) { ... }
+@Component
+@RequiredArgsConstructor
+public class Tracer {
+
+    public static final String TRACEPARENT = "traceparent";
+
+    private static final Pattern TRACEPARENT_FORMAT = Pattern.compile("00-[0-9a-f]{32}-[0-9a-f]{16}-[0-9a-f]{2}");
+    private static final String INVALID_TRACE_ID = "0".repeat(32);
+    private static final String INVALID_SPAN_ID = "0".repeat(16);
+
+    private final SpanExporter exporter;
+    private final ThreadLocal<Span> current = new ThreadLocal<>();
+
+    // Child of the current span, or the root of a new trace
+    public Span startSpan(String name) {
+        Span parent = current.get();
+        return parent != null
+                ? open(name, parent.getTraceId(), parent.getSpanId(), parent.sampled)
+                : open(name, randomHex(16), null, true);
+    }
+
+    // Continues the caller's trace when the traceparent header is valid
+    public Span startServerSpan(String name, String traceparent) {
+        if (traceparent != null && TRACEPARENT_FORMAT.matcher(traceparent).matches()) {
+            String[] parts = traceparent.split("-");
+            if (!INVALID_TRACE_ID.equals(parts[1]) && !INVALID_SPAN_ID.equals(parts[2])) {
+                boolean sampled = (Integer.parseInt(parts[3], 16) & 1) == 1;
+                return open(name, parts[1], parts[2], sampled);
+            }
+        }
+        return open(name, randomHex(16), null, true);
+    }
+
+    public Span currentSpan() {
+        return current.get();
+    }
+
+    public String currentTraceId() {
+        Span span = current.get();
+        return span != null ? span.getTraceId() : null;
+    }
+
+    // Carries the current span over to a task that runs on another thread
+    public <T> Supplier<T> wrap(Supplier<T> task) {
+        Span parent = current.get();
+        return () -> {
+            Span previous = current.get();
+            current.set(parent);
+            try {
+                return task.get();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    private Span open(String name, String traceId, String parentSpanId, boolean sampled) {
+        Span span = new Span(name, traceId, randomHex(8), parentSpanId, sampled, current.get());
+        current.set(span);
+        return span;
+    }
+
+    private void restore(Span previous) {
+        if (previous != null) {
+            current.set(previous);
+        } else {
+            current.remove();
+        }
+    }
+
+    private static String randomHex(int bytes) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StringBuilder hex = new StringBuilder(bytes * 2);
+        for (int i = 0; i < bytes; i++) {
+            hex.append(Character.forDigit(random.nextInt(16), 16)).append(Character.forDigit(random.nextInt(16), 16));
+        }
+        return hex.toString();
+    }
+
+    @Getter
+    public class Span implements AutoCloseable {
+        private String name;
+        private final String traceId;
+        private final String spanId;
+        private final String parentSpanId;
+        private final boolean sampled;
+        private final long startEpochMicros;
+        private final long startNanos;
+        private long durationMicros;
+        private String status = "OK";
+        private final Map<String, Object> attributes = new LinkedHashMap<>();
+        @Getter(AccessLevel.NONE)
+        private final Span previous;
+        @Getter(AccessLevel.NONE)
+        private final ExecutionEvents.Phase phaseEvent;
+        private boolean ended;
+
+        private Span(String name, String traceId, String spanId, String parentSpanId, boolean sampled, Span previous) {
+            this.name = name;
+            this.traceId = traceId;
+            this.spanId = spanId;
+            this.parentSpanId = parentSpanId;
+            this.sampled = sampled;
+            this.previous = previous;
+            this.startEpochMicros = System.currentTimeMillis() * 1000;
+            this.startNanos = System.nanoTime();
+            ExecutionEvents.Phase event = new ExecutionEvents.Phase();
+            if (event.isEnabled()) {
+                event.begin();
+                this.phaseEvent = event;
+            } else {
+                this.phaseEvent = null;
+            }
+        }
+
+        public Span rename(String name) {
+            this.name = name;
+            return this;
+        }
+
+        public Span setAttribute(String key, Object value) {
+            attributes.put(key, value);
+            return this;
+        }
+
+        public Span recordError(Throwable error) {
+            status = "ERROR";
+            attributes.put("error.type", error.getClass().getName());
+            attributes.put("error.message", error.getMessage());
+            return this;
+        }
+
+        public Span markError(String description) {
+            status = "ERROR";
+            attributes.put("error.message", description);
+            return this;
+        }
+
+        // Header value identifying this span as the parent of a downstream call
+        public String traceparent() {
+            return "00-" + traceId + "-" + spanId + (sampled ? "-01" : "-00");
+        }
+
+        @Override
+        public void close() {
+            if (ended) {
+                return;
+            }
+            ended = true;
+            durationMicros = (System.nanoTime() - startNanos) / 1000;
+            if (current.get() == this) {
+                restore(previous);
+            }
+            if (phaseEvent != null) {
+                phaseEvent.end();
+                if (phaseEvent.shouldCommit()) {
+                    phaseEvent.phase = name;
+                    phaseEvent.status = status;
+                    phaseEvent.traceId = traceId;
+                    phaseEvent.spanId = spanId;
+                    phaseEvent.commit();
+                }
+            }
+            if (sampled) {
+                exporter.export(new SpanExporter.SpanData(traceId, spanId, parentSpanId, name, startEpochMicros,
+                        durationMicros, status, new LinkedHashMap<>(attributes)));
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.controlpanel.tracing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+// Server span around every request, ahead of the security chain so auth time is included.
+// Joins the caller's trace via traceparent and echoes the span's traceparent back.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@RequiredArgsConstructor
+public class TracingFilter extends OncePerRequestFilter {
+
+    private final Tracer tracer;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try (Tracer.Span span = tracer.startServerSpan(request.getMethod() + " " + request.getRequestURI(),
+                request.getHeader(Tracer.TRACEPARENT))) {
+            span.setAttribute("http.method", request.getMethod());
+            span.setAttribute("http.target", request.getRequestURI());
+            response.setHeader(Tracer.TRACEPARENT, span.traceparent());
+            MDC.put("traceId", span.getTraceId());
+            try {
+                chain.doFilter(request, response);
+            } catch (IOException | ServletException | RuntimeException e) {
+                span.recordError(e);
+                throw e;
+            } finally {
+                // Name by route rather than raw URI so spans group per endpoint
+                Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                if (route != null) {
+                    span.rename(request.getMethod() + " " + route);
+                }
+                span.setAttribute("http.status_code", response.getStatus());
+                if (response.getStatus() >= 500) {
+                    span.markError("HTTP " + response.getStatus());
+                }
+                MDC.remove("traceId");
+            }
+        }
+    }
+}
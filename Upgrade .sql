@@ -0,0 +1,172 @@
+-- Upgrade script for existing Application Control Panel databases
+-- Run against control_panel_db after deploying a new backend version.
+-- Each section is idempotent and can be re-run safely.
+
+\c control_panel_db;
+
+-- Pooled sequence ids for ControlButton / AuditLog
+-- The BIGSERIAL sequences are kept; Hibernate now reserves ids in blocks of 50,
+-- so the increment must match allocationSize. Restart past the current max id
+-- so the first reserved block cannot collide with existing rows. On a re-run the
+-- sequence never moves back below a block that was already handed out.
+ALTER SEQUENCE control_buttons_id_seq INCREMENT BY 50;
+SELECT setval('control_buttons_id_seq', GREATEST(COALESCE((SELECT MAX(id) FROM control_buttons), 0),
+    (SELECT last_value FROM control_buttons_id_seq)) + 50, false);
+
+ALTER SEQUENCE audit_logs_id_seq INCREMENT BY 50;
+SELECT setval('audit_logs_id_seq', GREATEST(COALESCE((SELECT MAX(id) FROM audit_logs), 0),
+    (SELECT last_value FROM audit_logs_id_seq)) + 50, false);
+
+-- JSONB button configuration
+-- Existing TEXT values must be valid JSON; empty strings become NULL.
+-- Only converts while the columns are still TEXT: NULLIF(jsonb, text) fails on a re-run.
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_name = 'control_buttons' AND column_name = 'headers' AND data_type = 'text') THEN
+        ALTER TABLE control_buttons
+            ALTER COLUMN headers TYPE JSONB USING NULLIF(headers, '')::jsonb,
+            ALTER COLUMN payload_parameters TYPE JSONB USING NULLIF(payload_parameters, '')::jsonb,
+            ALTER COLUMN validation_schema TYPE JSONB USING NULLIF(validation_schema, '')::jsonb;
+    END IF;
+END $$;
+
+CREATE INDEX IF NOT EXISTS idx_control_buttons_headers ON control_buttons USING GIN (headers);
+CREATE INDEX IF NOT EXISTS idx_control_buttons_payload ON control_buttons USING GIN (payload_parameters jsonb_path_ops);
+
+CREATE OR REPLACE FUNCTION control_button_has_header(h JSONB, name TEXT) RETURNS BOOLEAN
+    AS 'SELECT h ? name' LANGUAGE SQL IMMUTABLE;
+
+-- Compressed audit bodies (app.audit.compression=GZIP)
+ALTER TABLE audit_logs
+    ADD COLUMN IF NOT EXISTS request_payload_compressed BYTEA,
+    ADD COLUMN IF NOT EXISTS response_data_compressed BYTEA,
+    ADD COLUMN IF NOT EXISTS body_codec VARCHAR(10) DEFAULT 'NONE';
+
+-- Deduplicated audit bodies
+ALTER TABLE audit_logs
+    ADD COLUMN IF NOT EXISTS request_payload_hash VARCHAR(64),
+    ADD COLUMN IF NOT EXISTS response_data_hash VARCHAR(64);
+
+-- Content-addressed audit bodies, shared across audit_logs rows
+CREATE TABLE IF NOT EXISTS audit_blobs (
+    hash VARCHAR(64) PRIMARY KEY,
+    codec VARCHAR(10) NOT NULL,
+    content BYTEA NOT NULL,
+    size_bytes INTEGER NOT NULL,
+    ref_count BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_audit_blobs_unreferenced ON audit_blobs(ref_count) WHERE ref_count <= 0;
+
+-- Release blob references when audit rows go away (including button delete cascades)
+CREATE OR REPLACE FUNCTION audit_blobs_release() RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE audit_blobs SET ref_count = ref_count - 1 WHERE hash = OLD.request_payload_hash;
+    UPDATE audit_blobs SET ref_count = ref_count - 1 WHERE hash = OLD.response_data_hash;
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_audit_logs_release_blobs ON audit_logs;
+CREATE TRIGGER trg_audit_logs_release_blobs
+    AFTER DELETE ON audit_logs
+    FOR EACH ROW EXECUTE FUNCTION audit_blobs_release();
+
+-- WORKFLOW buttons and parent/child audit rows
+ALTER TABLE control_buttons
+    ALTER COLUMN target_endpoint DROP NOT NULL,
+    ALTER COLUMN http_method DROP NOT NULL,
+    ADD COLUMN IF NOT EXISTS workflow_steps JSONB;
+
+ALTER TABLE audit_logs ADD COLUMN IF NOT EXISTS parent_audit_id BIGINT;
+CREATE INDEX IF NOT EXISTS idx_audit_logs_parent ON audit_logs(parent_audit_id) WHERE parent_audit_id IS NOT NULL;
+
+-- Per-button response projection
+ALTER TABLE control_buttons ADD COLUMN IF NOT EXISTS response_projection JSONB;
+
+-- Trace id of each execution
+ALTER TABLE audit_logs ADD COLUMN IF NOT EXISTS trace_id VARCHAR(32);
+CREATE INDEX IF NOT EXISTS idx_audit_logs_trace ON audit_logs(trace_id) WHERE trace_id IS NOT NULL;
+
+-- Execution priority lanes
+ALTER TABLE control_buttons ADD COLUMN IF NOT EXISTS priority VARCHAR(20) NOT NULL DEFAULT 'NORMAL';
+
+-- Users, roles and per-button / per-category grants (accounts are bootstrapped by the app)
+CREATE TABLE IF NOT EXISTS app_roles (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(50) NOT NULL UNIQUE
+);
+
+CREATE TABLE IF NOT EXISTS app_role_grants (
+    role_id BIGINT NOT NULL REFERENCES app_roles(id) ON DELETE CASCADE,
+    permission VARCHAR(20) NOT NULL,
+    button_id BIGINT,
+    category VARCHAR(100)
+);
+
+CREATE TABLE IF NOT EXISTS app_users (
+    id BIGSERIAL PRIMARY KEY,
+    username VARCHAR(100) NOT NULL UNIQUE,
+    password_hash VARCHAR(100) NOT NULL,
+    enabled BOOLEAN NOT NULL DEFAULT TRUE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS app_user_roles (
+    user_id BIGINT NOT NULL REFERENCES app_users(id) ON DELETE CASCADE,
+    role_id BIGINT NOT NULL REFERENCES app_roles(id) ON DELETE CASCADE,
+    PRIMARY KEY (user_id, role_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_app_role_grants_role ON app_role_grants(role_id);
+
+-- Asynchronous execution jobs
+CREATE TABLE IF NOT EXISTS execution_jobs (
+    id VARCHAR(36) PRIMARY KEY,
+    button_id BIGINT NOT NULL,
+    submitted_by VARCHAR(100) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    input_parameters JSONB,
+    preview BOOLEAN NOT NULL DEFAULT FALSE,
+    callback_url VARCHAR(500),
+    traceparent VARCHAR(55),
+    owner_node VARCHAR(36),
+    heartbeat_at TIMESTAMP,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    result JSONB,
+    error_message TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    started_at TIMESTAMP,
+    finished_at TIMESTAMP,
+    expires_at TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_execution_jobs_queued ON execution_jobs(created_at) WHERE status = 'QUEUED';
+CREATE INDEX IF NOT EXISTS idx_execution_jobs_running ON execution_jobs(heartbeat_at) WHERE status = 'RUNNING';
+CREATE INDEX IF NOT EXISTS idx_execution_jobs_expires ON execution_jobs(expires_at) WHERE expires_at IS NOT NULL;
+
+-- Named outbound credentials referenced by control_buttons.credential_provider
+CREATE TABLE IF NOT EXISTS credential_providers (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(100) NOT NULL UNIQUE,
+    type VARCHAR(30) NOT NULL,
+    header_name VARCHAR(100) NOT NULL DEFAULT 'Authorization',
+    static_value VARCHAR(2000),
+    token_url VARCHAR(500),
+    client_id VARCHAR(255),
+    client_secret VARCHAR(500),
+    scope VARCHAR(500),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP
+);
+
+ALTER TABLE control_buttons ADD COLUMN IF NOT EXISTS credential_provider VARCHAR(100);
+
+-- Incremental button list sync (GET /control-panel/buttons/changes?since=...)
+CREATE INDEX IF NOT EXISTS idx_control_buttons_updated_at ON control_buttons(updated_at);
+
+-- Paged audit history per button (GET /control-panel/button/{id}/audit?page=&size=)
+CREATE INDEX IF NOT EXISTS idx_audit_logs_button_executed_at ON audit_logs(button_id, executed_at DESC);
+DROP INDEX IF EXISTS idx_audit_logs_button_id;
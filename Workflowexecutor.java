@@ -0,0 +1,339 @@
+package com.example.controlpanel.service;
+
+import com.example.controlpanel.dto.ButtonDTO;
+import com.example.controlpanel.entity.AuditLog;
+import com.example.controlpanel.entity.ControlButton;
+import com.example.controlpanel.entity.Role;
+import com.example.controlpanel.repository.AuditLogRepository;
+import com.example.controlpanel.repository.ControlButtonRepository;
+import com.example.controlpanel.tracing.Tracer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Runs WORKFLOW buttons: steps form a DAG of REST_API_CALL buttons, independent
+// branches run in parallel and each step can feed extracted outputs to its dependents.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WorkflowExecutor {
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\$\\{([\\w-]+)\\.([\\w-]+)}");
+    private static final String INPUT_SCOPE = "input";
+
+    private final ControlButtonRepository buttonRepository;
+    private final AuditLogRepository auditLogRepository;
+    private final AuditBodyStore auditBodyStore;
+    private final ButtonExecutor buttonExecutor;
+    private final ObjectMapper objectMapper;
+    private final PermissionService permissionService;
+    private final Tracer tracer;
+
+    @Value("${app.workflow.parallelism:8}")
+    private int parallelism;
+
+    @Value("${app.workflow.queue-capacity:200}")
+    private int queueCapacity;
+
+    private ExecutorService stepExecutor;
+
+    @PostConstruct
+    void init() {
+        stepExecutor = new ThreadPoolExecutor(parallelism, parallelism, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        stepExecutor.shutdown();
+    }
+
+    // Steps run other buttons, so saving a workflow needs EXECUTE on each of them
+    public void validate(List<ControlButton.WorkflowStep> steps) {
+        loadStepButtons(steps).values().forEach(button -> permissionService.check(Role.Permission.EXECUTE, button));
+    }
+
+    private Map<Long, ControlButton> loadStepButtons(List<ControlButton.WorkflowStep> steps) {
+        if (steps == null || steps.isEmpty()) {
+            throw new IllegalArgumentException("Workflow must define at least one step");
+        }
+        Set<Long> buttonIds = new HashSet<>();
+        for (ControlButton.WorkflowStep step : steps) {
+            if (step.getId() == null || step.getId().isBlank() || INPUT_SCOPE.equals(step.getId())) {
+                throw new IllegalArgumentException("Workflow step id is required and must not be '" + INPUT_SCOPE + "'");
+            }
+            if (step.getButtonId() == null) {
+                throw new IllegalArgumentException("Workflow step " + step.getId() + " has no buttonId");
+            }
+            buttonIds.add(step.getButtonId());
+        }
+        topologicalOrder(steps);
+
+        Map<Long, ControlButton> buttons = new HashMap<>();
+        buttonRepository.findAllById(buttonIds).forEach(button -> buttons.put(button.getId(), button));
+        for (Long buttonId : buttonIds) {
+            ControlButton button = buttons.get(buttonId);
+            if (button == null) {
+                throw new IllegalArgumentException("Workflow references unknown button " + buttonId);
+            }
+            if (button.getActionType() != ControlButton.ActionType.REST_API_CALL) {
+                throw new IllegalArgumentException("Workflow steps must reference REST_API_CALL buttons: " + buttonId);
+            }
+            // Checked on save and again on every run, as buttons can be deactivated later
+            if (!Boolean.TRUE.equals(button.getActive())) {
+                throw new IllegalArgumentException("Workflow step button " + buttonId + " is inactive");
+            }
+        }
+        return buttons;
+    }
+
+    public ButtonDTO.ExecuteButtonResponse execute(ControlButton workflow, Map<String, Object> inputParams,
+                                                   boolean preview, String currentUser) {
+        return execute(workflow, inputParams, preview, currentUser, false);
+    }
+
+    public ButtonDTO.ExecuteButtonResponse execute(ControlButton workflow, Map<String, Object> inputParams,
+                                                   boolean preview, String currentUser, boolean background) {
+        long startTime = System.currentTimeMillis();
+        List<ControlButton.WorkflowStep> steps = workflow.getWorkflowSteps();
+        Map<Long, ControlButton> buttons = loadStepButtons(steps);
+        // Checked again per run: grants may have been revoked since the workflow was saved
+        buttons.values().forEach(button -> permissionService.check(currentUser, Role.Permission.EXECUTE, button));
+        // Step threads get their own copies: the loaded entities belong to the caller's
+        // persistence context, which is not safe to touch from other threads
+        Map<Long, ControlButton> stepButtons = new HashMap<>();
+        buttons.forEach((id, button) -> stepButtons.put(id, objectMapper.convertValue(button, ControlButton.class)));
+
+        // Parent row first so the step rows can reference its id
+        AuditLog parentAudit = new AuditLog();
+        parentAudit.setButtonId(workflow.getId());
+        parentAudit.setExecutedBy(currentUser);
+        parentAudit.setAction("WORKFLOW " + workflow.getLabel());
+        parentAudit.setTraceId(tracer.currentTraceId());
+        parentAudit.setStatus(AuditLog.ExecutionStatus.FAILURE);
+        parentAudit = auditLogRepository.save(parentAudit);
+        Long parentAuditId = parentAudit.getId();
+
+        Map<String, Map<String, Object>> context = new ConcurrentHashMap<>();
+        context.put(INPUT_SCOPE, inputParams);
+
+        Map<String, CompletableFuture<ButtonDTO.WorkflowStepResult>> futures = new LinkedHashMap<>();
+        for (ControlButton.WorkflowStep step : topologicalOrder(steps)) {
+            List<CompletableFuture<ButtonDTO.WorkflowStepResult>> dependencies = dependsOn(step).stream()
+                    .map(futures::get)
+                    .toList();
+            // Step spans run on pool threads but stay children of the request span
+            Supplier<ButtonDTO.WorkflowStepResult> task = tracer.wrap(() -> {
+                boolean blocked = dependencies.stream()
+                        .map(CompletableFuture::join)
+                        .anyMatch(result -> !"SUCCESS".equals(result.getStatus()));
+                return blocked
+                        ? skipped(step)
+                        : runStep(step, stepButtons.get(step.getButtonId()), context, preview, currentUser, parentAuditId, background);
+            });
+            CompletableFuture<ButtonDTO.WorkflowStepResult> future = CompletableFuture
+                    .allOf(dependencies.toArray(new CompletableFuture[0]))
+                    .thenApplyAsync(ignored -> task.get(), stepExecutor);
+            futures.put(step.getId(), future);
+        }
+
+        List<ButtonDTO.WorkflowStepResult> results = new ArrayList<>();
+        for (ControlButton.WorkflowStep step : steps) {
+            results.add(futures.get(step.getId()).join());
+        }
+
+        long executionTime = System.currentTimeMillis() - startTime;
+        boolean success = results.stream().allMatch(result -> "SUCCESS".equals(result.getStatus()));
+
+        parentAudit.setStatus(success ? AuditLog.ExecutionStatus.SUCCESS : AuditLog.ExecutionStatus.FAILURE);
+        parentAudit.setExecutionTimeMs(executionTime);
+        if (!success) {
+            parentAudit.setErrorMessage("One or more workflow steps did not succeed");
+        }
+        auditBodyStore.writeBodies(parentAudit, toJson(inputParams), toJson(results));
+        // Explicit: async jobs run without a transaction, so dirty checking would not write it
+        auditLogRepository.save(parentAudit);
+
+        // Step executions leave lastExecutedAt alone; it is written here, once, on this thread
+        if (!preview) {
+            LocalDateTime now = LocalDateTime.now();
+            List<ControlButton> executed = new ArrayList<>();
+            workflow.setLastExecutedAt(now);
+            executed.add(workflow);
+            results.stream()
+                    .filter(result -> !"SKIPPED".equals(result.getStatus()))
+                    .map(result -> buttons.get(result.getButtonId()))
+                    .distinct()
+                    .forEach(button -> {
+                        button.setLastExecutedAt(now);
+                        executed.add(button);
+                    });
+            buttonRepository.saveAll(executed);
+        }
+
+        ButtonDTO.ExecuteButtonResponse response = new ButtonDTO.ExecuteButtonResponse();
+        response.setSuccess(success);
+        response.setMessage(success ? "Workflow completed" : "Workflow failed");
+        response.setData(results);
+        response.setExecutionTimeMs(executionTime);
+        return response;
+    }
+
+    private ButtonDTO.WorkflowStepResult runStep(ControlButton.WorkflowStep step, ControlButton button,
+                                                 Map<String, Map<String, Object>> context, boolean preview,
+                                                 String currentUser, Long parentAuditId, boolean background) {
+        Map<String, Object> inputs = new HashMap<>();
+        if (button.getPayloadParameters() != null) {
+            inputs.putAll(button.getPayloadParameters());
+        }
+        if (step.getInputs() != null) {
+            step.getInputs().forEach((name, value) -> inputs.put(name, resolve(value, context)));
+        }
+
+        ButtonDTO.ExecuteButtonResponse response;
+        try (Tracer.Span span = tracer.startSpan("workflow.step")) {
+            span.setAttribute("workflow.step", step.getId());
+            response = buttonExecutor.execute(button, inputs, preview, currentUser, parentAuditId, background);
+        }
+
+        Map<String, Object> outputs = extractOutputs(step, response.getData());
+        context.put(step.getId(), outputs);
+
+        ButtonDTO.WorkflowStepResult result = new ButtonDTO.WorkflowStepResult();
+        result.setStepId(step.getId());
+        result.setButtonId(step.getButtonId());
+        result.setStatus(Boolean.TRUE.equals(response.getSuccess()) ? "SUCCESS" : "FAILURE");
+        result.setStatusCode(response.getStatusCode());
+        result.setExecutionTimeMs(response.getExecutionTimeMs());
+        result.setMessage(response.getMessage());
+        result.setData(response.getData());
+        result.setOutputs(outputs);
+        return result;
+    }
+
+    private ButtonDTO.WorkflowStepResult skipped(ControlButton.WorkflowStep step) {
+        ButtonDTO.WorkflowStepResult result = new ButtonDTO.WorkflowStepResult();
+        result.setStepId(step.getId());
+        result.setButtonId(step.getButtonId());
+        result.setStatus("SKIPPED");
+        result.setMessage("Skipped because a dependency did not succeed");
+        return result;
+    }
+
+    private Map<String, Object> extractOutputs(ControlButton.WorkflowStep step, Object data) {
+        Map<String, Object> outputs = new HashMap<>();
+        if (step.getOutputs() == null || step.getOutputs().isEmpty() || data == null) {
+            return outputs;
+        }
+        JsonNode tree = objectMapper.valueToTree(data);
+        step.getOutputs().forEach((name, pointer) -> {
+            JsonNode node = tree.at(pointer);
+            if (!node.isMissingNode()) {
+                outputs.put(name, objectMapper.convertValue(node, Object.class));
+            }
+        });
+        return outputs;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object resolve(Object value, Map<String, Map<String, Object>> context) {
+        if (value instanceof Map<?, ?> map) {
+            Map<String, Object> resolved = new LinkedHashMap<>();
+            ((Map<String, Object>) map).forEach((key, nested) -> resolved.put(key, resolve(nested, context)));
+            return resolved;
+        }
+        if (value instanceof List<?> list) {
+            return list.stream().map(nested -> resolve(nested, context)).toList();
+        }
+        if (!(value instanceof String text)) {
+            return value;
+        }
+
+        Matcher matcher = PLACEHOLDER.matcher(text);
+        // A value that is exactly one placeholder keeps the referenced value's type
+        if (matcher.matches()) {
+            return lookup(context, matcher.group(1), matcher.group(2));
+        }
+        StringBuilder resolved = new StringBuilder();
+        matcher.reset();
+        while (matcher.find()) {
+            Object replacement = lookup(context, matcher.group(1), matcher.group(2));
+            matcher.appendReplacement(resolved, Matcher.quoteReplacement(String.valueOf(replacement)));
+        }
+        matcher.appendTail(resolved);
+        return resolved.toString();
+    }
+
+    private Object lookup(Map<String, Map<String, Object>> context, String scope, String name) {
+        Map<String, Object> values = context.get(scope);
+        return values != null ? values.get(name) : null;
+    }
+
+    private List<ControlButton.WorkflowStep> topologicalOrder(List<ControlButton.WorkflowStep> steps) {
+        Map<String, ControlButton.WorkflowStep> byId = new LinkedHashMap<>();
+        for (ControlButton.WorkflowStep step : steps) {
+            if (byId.put(step.getId(), step) != null) {
+                throw new IllegalArgumentException("Duplicate workflow step id: " + step.getId());
+            }
+        }
+
+        Map<String, Integer> pending = new HashMap<>();
+        Map<String, List<String>> dependents = new HashMap<>();
+        for (ControlButton.WorkflowStep step : steps) {
+            for (String dependency : dependsOn(step)) {
+                if (!byId.containsKey(dependency)) {
+                    throw new IllegalArgumentException("Workflow step " + step.getId() + " depends on unknown step " + dependency);
+                }
+                dependents.computeIfAbsent(dependency, d -> new ArrayList<>()).add(step.getId());
+            }
+            pending.put(step.getId(), dependsOn(step).size());
+        }
+
+        Deque<String> ready = new ArrayDeque<>();
+        pending.forEach((id, count) -> {
+            if (count == 0) {
+                ready.add(id);
+            }
+        });
+        List<ControlButton.WorkflowStep> ordered = new ArrayList<>();
+        while (!ready.isEmpty()) {
+            String id = ready.poll();
+            ordered.add(byId.get(id));
+            for (String dependent : dependents.getOrDefault(id, List.of())) {
+                if (pending.merge(dependent, -1, Integer::sum) == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        if (ordered.size() != steps.size()) {
+            throw new IllegalArgumentException("Workflow steps contain a dependency cycle");
+        }
+        return ordered;
+    }
+
+    private static List<String> dependsOn(ControlButton.WorkflowStep step) {
+        return step.getDependsOn() != null ? new ArrayList<>(new LinkedHashSet<>(step.getDependsOn())) : List.of();
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            log.error("Error converting workflow data to JSON", e);
+            return null;
+        }
+    }
+}
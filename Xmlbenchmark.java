@@ -0,0 +1,126 @@
+package com.example.controlpanel.benchmark;
+
+import com.example.controlpanel.service.XmlResponseReader;
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+// XmlResponseReader against DOM on SOAP responses of a few MB, as the legacy targets send them:
+// time per document, bytes allocated while parsing and heap still held by the result. StAX
+// is measured converting the whole document and applying a projection, DOM building the
+// tree that either would start from. Runs as a single source file against the compiled
+// classes (see xml-benchmark.sh):
+//
+//   java -cp target/classes:<dependencies> -Dsizes=1,8,32 -Dseconds=5 Xmlbenchmark.java
+public class XmlBenchmark {
+
+    private static final List<String> PROJECTION = List.of(
+            "/Envelope/Body/GetInventoryResponse/*/sku",
+            "/Envelope/Header/RequestId");
+
+    @FunctionalInterface
+    interface Task {
+        Object run(byte[] xml) throws Exception;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int seconds = Integer.getInteger("seconds", 5);
+        XmlResponseReader reader = new XmlResponseReader();
+        // Limits come from @Value outside this benchmark; documents here are trusted
+        set(reader, "maxElements", Integer.MAX_VALUE);
+        set(reader, "maxDepth", 256);
+
+        DocumentBuilderFactory dom = DocumentBuilderFactory.newInstance();
+        dom.setNamespaceAware(true);
+        dom.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+        dom.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+
+        System.out.printf("%-22s %8s %10s %9s %14s %12s%n",
+                "case", "MB", "ms/doc", "MB/s", "alloc MB/doc", "held MB");
+        for (String size : System.getProperty("sizes", "1,8,32").split(",")) {
+            byte[] xml = soapResponse(Integer.parseInt(size.trim()) * 1024 * 1024);
+            measure("dom", xml, seconds, bytes -> dom.newDocumentBuilder().parse(new ByteArrayInputStream(bytes)));
+            measure("stax read", xml, seconds, bytes -> reader.read(
+                    new InputStreamReader(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8)));
+            measure("stax projection", xml, seconds, bytes -> reader.project(new ByteArrayInputStream(bytes), PROJECTION));
+            System.out.println();
+        }
+    }
+
+    private static void measure(String name, byte[] xml, int seconds, Task task) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+
+        // Warm-up, so the JIT has compiled the path before it is timed
+        long warmUntil = System.nanoTime() + 2_000_000_000L;
+        while (System.nanoTime() < warmUntil) {
+            task.run(xml);
+        }
+
+        long ops = 0;
+        long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        long end = start + seconds * 1_000_000_000L;
+        long now;
+        do {
+            task.run(xml);
+            ops++;
+            now = System.nanoTime();
+        } while (now < end);
+        long allocated = threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+        double elapsed = (now - start) / 1e9;
+
+        // Heap the result keeps alive, e.g. a DOM tree versus a few projected values
+        long baseline = usedAfterGc();
+        Object result = task.run(xml);
+        long held = usedAfterGc() - baseline;
+
+        double mb = xml.length / (1024.0 * 1024);
+        System.out.printf("%-22s %8.1f %10.1f %9.1f %14.1f %12.1f%n", name, mb, elapsed * 1000 / ops,
+                mb * ops / elapsed, allocated / (1024.0 * 1024) / ops, Math.max(0, held) / (1024.0 * 1024));
+        // Kept reachable until after the heap was measured
+        Reference.reachabilityFence(result);
+    }
+
+    private static long usedAfterGc() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    // A SOAP 1.1 inventory response padded to about bytes
+    private static byte[] soapResponse(int bytes) {
+        StringBuilder xml = new StringBuilder(bytes + 1024)
+                .append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>")
+                .append("<soap:Envelope xmlns:soap=\"http://schemas.xmlsoap.org/soap/envelope/\" xmlns:inv=\"urn:inventory\">")
+                .append("<soap:Header><inv:RequestId>bench-1</inv:RequestId></soap:Header>")
+                .append("<soap:Body><inv:GetInventoryResponse>");
+        int i = 0;
+        while (xml.length() < bytes) {
+            xml.append("<inv:Item id=\"").append(i).append("\" warehouse=\"WH-").append(i % 12).append("\">")
+                    .append("<inv:sku>SKU-").append(100000 + i).append("</inv:sku>")
+                    .append("<inv:name>Item ").append(i).append("</inv:name>")
+                    .append("<inv:quantity>").append(i % 500).append("</inv:quantity>")
+                    .append("<inv:status>").append(i % 9 == 0 ? "BACKORDER" : "IN_STOCK").append("</inv:status>")
+                    .append("</inv:Item>");
+            i++;
+        }
+        return xml.append("</inv:GetInventoryResponse></soap:Body></soap:Envelope>")
+                .toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void set(Object target, String field, Object value) throws ReflectiveOperationException {
+        Field declared = target.getClass().getDeclaredField(field);
+        declared.setAccessible(true);
+        declared.set(target, value);
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.controlpanel.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.*;
+
+// StAX reader for OutputFormat.XML responses. Elements become maps ("@attr" for attributes,
+// "#text" for mixed text, repeated children as lists) and leaf elements become strings.
+// Projections use the same pointer/JSONPath syntax as JSON buttons, matched on local names,
+// and only materialize the selected elements. As there, a "*" segment makes the result a list;
+// repeated elements are selected with it. DTDs and external entities are disabled.
+@Component
+public class XmlResponseReader {
+
+    private static final String WILDCARD = "*";
+
+    @Value("${app.xml.max-elements:200000}")
+    private int maxElements;
+
+    @Value("${app.xml.max-depth:256}")
+    private int maxDepth;
+
+    private final XMLInputFactory inputFactory = createInputFactory();
+
+    public Map<String, Object> read(Reader xml) throws XMLStreamException {
+        XMLStreamReader reader = inputFactory.createXMLStreamReader(xml);
+        try {
+            if (!toRootElement(reader)) {
+                return Map.of();
+            }
+            String root = reader.getLocalName();
+            Map<String, Object> document = new LinkedHashMap<>();
+            document.put(root, readElement(reader, 1, new int[1]));
+            return document;
+        } finally {
+            reader.close();
+        }
+    }
+
+    public Map<String, Object> project(InputStream xml, List<String> expressions) throws XMLStreamException {
+        Map<String, String[]> parsed = new LinkedHashMap<>();
+        Map<String, List<Object>> matches = new LinkedHashMap<>();
+        for (String expression : expressions) {
+            parsed.put(expression, JsonProjector.parse(expression));
+            matches.put(expression, new ArrayList<>());
+        }
+
+        XMLStreamReader reader = inputFactory.createXMLStreamReader(xml);
+        try {
+            if (toRootElement(reader)) {
+                visit(reader, 1, new ArrayList<>(parsed.entrySet()), matches, new int[1]);
+            }
+        } finally {
+            reader.close();
+        }
+
+        // Same contract as JsonProjector: a wildcard always yields a list, any other path its
+        // first match, so the shape does not depend on how many elements the response holds
+        Map<String, Object> result = new LinkedHashMap<>();
+        matches.forEach((expression, values) -> {
+            if (Arrays.asList(parsed.get(expression)).contains(WILDCARD)) {
+                result.put(expression, values);
+            } else {
+                result.put(expression, values.isEmpty() ? null : values.get(0));
+            }
+        });
+        return result;
+    }
+
+    // The reader is positioned on a START_ELEMENT at the given depth (root = 1)
+    private void visit(XMLStreamReader reader, int depth, List<Map.Entry<String, String[]>> active,
+                       Map<String, List<Object>> matches, int[] elements) throws XMLStreamException {
+        checkDepth(depth);
+        String name = reader.getLocalName();
+        List<Map.Entry<String, String[]>> narrowed = new ArrayList<>();
+        List<Map.Entry<String, String[]>> complete = new ArrayList<>();
+        for (Map.Entry<String, String[]> expression : active) {
+            String[] segments = expression.getValue();
+            if (segments.length == 0) {
+                complete.add(expression);
+            } else if (WILDCARD.equals(segments[depth - 1]) || segments[depth - 1].equals(name)) {
+                (segments.length == depth ? complete : narrowed).add(expression);
+            }
+        }
+
+        if (!complete.isEmpty()) {
+            Object value = readElement(reader, depth, elements);
+            complete.forEach(expression -> matches.get(expression.getKey()).add(value));
+            // Longer expressions under this element are answered from the value just read,
+            // the reader has already moved past it
+            if (!narrowed.isEmpty()) {
+                collect(value, depth, narrowed, matches);
+            }
+            return;
+        }
+        if (narrowed.isEmpty()) {
+            skipElement(reader);
+            return;
+        }
+
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                visit(reader, depth + 1, narrowed, matches, elements);
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                return;
+            }
+        }
+    }
+
+    // Tree counterpart of visit over what readElement built: children by local name, repeated
+    // children as lists; attributes and text are not elements and never match
+    private static void collect(Object value, int depth, List<Map.Entry<String, String[]>> active,
+                                Map<String, List<Object>> matches) {
+        List<Map.Entry<String, String[]>> deeper = new ArrayList<>();
+        for (Map.Entry<String, String[]> expression : active) {
+            if (expression.getValue().length == depth) {
+                matches.get(expression.getKey()).add(value);
+            } else {
+                deeper.add(expression);
+            }
+        }
+        if (deeper.isEmpty() || !(value instanceof Map<?, ?> element)) {
+            return;
+        }
+        for (Map.Entry<?, ?> child : element.entrySet()) {
+            String name = (String) child.getKey();
+            if (name.startsWith("@") || name.equals("#text")) {
+                continue;
+            }
+            List<Map.Entry<String, String[]>> narrowed = new ArrayList<>();
+            for (Map.Entry<String, String[]> expression : deeper) {
+                String expected = expression.getValue()[depth];
+                if (WILDCARD.equals(expected) || expected.equals(name)) {
+                    narrowed.add(expression);
+                }
+            }
+            if (narrowed.isEmpty()) {
+                continue;
+            }
+            if (child.getValue() instanceof List<?> repeated) {
+                for (Object item : repeated) {
+                    collect(item, depth + 1, narrowed, matches);
+                }
+            } else {
+                collect(child.getValue(), depth + 1, narrowed, matches);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object readElement(XMLStreamReader reader, int depth, int[] elements) throws XMLStreamException {
+        checkDepth(depth);
+        if (++elements[0] > maxElements) {
+            throw new XMLStreamException("XML response exceeds " + maxElements
+                    + " elements; configure a response projection for this button");
+        }
+
+        Map<String, Object> element = new LinkedHashMap<>();
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            element.put("@" + reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+        }
+
+        StringBuilder text = new StringBuilder();
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String child = reader.getLocalName();
+                Object value = readElement(reader, depth + 1, elements);
+                Object existing = element.get(child);
+                if (existing == null) {
+                    element.put(child, value);
+                } else if (existing instanceof List) {
+                    ((List<Object>) existing).add(value);
+                } else {
+                    List<Object> repeated = new ArrayList<>();
+                    repeated.add(existing);
+                    repeated.add(value);
+                    element.put(child, repeated);
+                }
+            } else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) {
+                text.append(reader.getText());
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                break;
+            }
+        }
+
+        String content = text.toString().trim();
+        if (element.isEmpty()) {
+            return content;
+        }
+        if (!content.isEmpty()) {
+            element.put("#text", content);
+        }
+        return element;
+    }
+
+    private void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int open = 1;
+        while (open > 0 && reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                open++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                open--;
+            }
+        }
+    }
+
+    private boolean toRootElement(XMLStreamReader reader) throws XMLStreamException {
+        while (reader.hasNext()) {
+            if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void checkDepth(int depth) throws XMLStreamException {
+        if (depth > maxDepth) {
+            throw new XMLStreamException("XML response nesting exceeds " + maxDepth + " levels");
+        }
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        // No DTD processing at all: rules out entity expansion and external entity attacks
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+}
@@ -0,0 +1,39 @@
+#!/usr/bin/env bash
+# Runs one Apibenchmark.java scenario against a freshly started backend.
+# Usage: ./api-benchmark.sh [-- <command that starts the backend>]
+# e.g.   SCENARIO=persistence BUTTONS=5000 ./api-benchmark.sh -- java -jar target/application-control-panel-1.0.0.jar
+# Without a start command the backend at BASE_URL must already be running.
+# PostgreSQL comes from the compose file unless SKIP_DB=1 (e.g. a local install is used).
+set -euo pipefail
+
+[ "${1:-}" = "--" ] && shift
+
+BASE_URL=${BASE_URL:-http://localhost:8080/api}
+AUTH=${AUTH:-user:password}
+TIMEOUT_S=${TIMEOUT_S:-120}
+
+if [ "${SKIP_DB:-0}" != "1" ]; then
+    docker compose -f "Docker compose .yml" up -d --wait postgres
+fi
+
+pid=""
+if [ $# -gt 0 ]; then
+    "$@" > api-benchmark-backend.log 2>&1 &
+    pid=$!
+    trap 'kill "$pid" 2>/dev/null || true; wait "$pid" 2>/dev/null || true' EXIT
+
+    start=$(date +%s)
+    until curl -sf -o /dev/null -u "$AUTH" "$BASE_URL/control-panel/buttons"; do
+        if [ $(( $(date +%s) - start )) -ge "$TIMEOUT_S" ]; then
+            echo "backend not ready within ${TIMEOUT_S}s (see api-benchmark-backend.log)" >&2
+            exit 1
+        fi
+        sleep 0.5
+    done
+fi
+
+java -DbaseUrl="$BASE_URL" -Dauth="$AUTH" -Dscenario="${SCENARIO:-persistence}" \
+     -Dusers="${USERS:-20}" -Dbuttons="${BUTTONS:-2000}" \
+     -Dwarmup="${WARMUP:-5}" -Dseconds="${CASE_SECONDS:-20}" -Dlevels="${LEVELS:-50,200,500}" \
+     ${BENCHMARK_OPTS:-} \
+     Apibenchmark.java
@@ -0,0 +1,17 @@
+#!/usr/bin/env bash
+# Measures the compression trade-off (Compressionbenchmark.java): raw vs gzip bytes for the
+# button list and target bodies of 1 KB to 4 MB, i.e. bytes on the wire with negotiated
+# response compression and bytes on disk with app.audit.compression=GZIP, against compress
+# and decompress throughput. Compiles the backend first.
+# Usage: ./compression-benchmark.sh
+# e.g.   BUTTONS=1000 CASE_SECONDS=5 ./compression-benchmark.sh
+set -euo pipefail
+
+BUTTONS=${BUTTONS:-200}
+CASE_SECONDS=${CASE_SECONDS:-3}
+
+mvn -B -q compile
+mvn -B -q dependency:build-classpath -Dmdep.outputFile=target/benchmark.classpath
+
+java -cp "target/classes:$(cat target/benchmark.classpath)" \
+    -Dbuttons="$BUTTONS" -Dseconds="$CASE_SECONDS" Compressionbenchmark.java
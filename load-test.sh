@@ -0,0 +1,44 @@
+#!/usr/bin/env bash
+# Runs the load test (Loadtest.java) against a freshly started backend.
+# Usage: ./load-test.sh [-- <command that starts the backend>]
+# e.g.   ./load-test.sh -- java -jar target/application-control-panel-1.0.0.jar
+#        USERS=50 DURATION=120 ./load-test.sh -- java -jar target/application-control-panel-1.0.0.jar
+# Without a start command the backend at BASE_URL must already be running.
+# PostgreSQL comes from the compose file unless SKIP_DB=1 (e.g. a local install is used).
+# Exits non-zero when an SLO is breached.
+set -euo pipefail
+
+[ "${1:-}" = "--" ] && shift
+
+BASE_URL=${BASE_URL:-http://localhost:8080/api}
+AUTH=${AUTH:-user:password}
+TIMEOUT_S=${TIMEOUT_S:-120}
+
+if [ "${SKIP_DB:-0}" != "1" ]; then
+    docker compose -f "Docker compose .yml" up -d --wait postgres
+fi
+
+pid=""
+if [ $# -gt 0 ]; then
+    "$@" > load-test-backend.log 2>&1 &
+    pid=$!
+    trap 'kill "$pid" 2>/dev/null || true; wait "$pid" 2>/dev/null || true' EXIT
+
+    start=$(date +%s)
+    until curl -sf -o /dev/null -u "$AUTH" "$BASE_URL/control-panel/buttons"; do
+        if [ $(( $(date +%s) - start )) -ge "$TIMEOUT_S" ]; then
+            echo "backend not ready within ${TIMEOUT_S}s (see load-test-backend.log)" >&2
+            exit 1
+        fi
+        sleep 0.5
+    done
+fi
+
+java -DbaseUrl="$BASE_URL" -Dauth="$AUTH" \
+     -Dusers="${USERS:-20}" -Dbuttons="${BUTTONS:-100}" \
+     -Dwarmup="${WARMUP:-10}" -Dduration="${DURATION:-60}" \
+     -Dstub.latencyMs="${STUB_LATENCY_MS:-50}" -Dstub.errorRate="${STUB_ERROR_RATE:-0.01}" \
+     -Dstub.payloadBytes="${STUB_PAYLOAD_BYTES:-4096}" \
+     -Dstub.tokenTtlSeconds="${STUB_TOKEN_TTL_S:-0}" -DadminAuth="${ADMIN_AUTH:-admin:admin}" \
+     ${LOAD_TEST_OPTS:-} \
+     Loadtest.java
@@ -0,0 +1,29 @@
+#!/usr/bin/env bash
+# Measures the request latency cost of logging: runs the load test twice against the same
+# backend command, first with the default synchronous console logging, then with the
+# json-logs profile (async JSON appender, sampled SQL), and prints both latency tables.
+# Usage: ./logging-benchmark.sh -- <command that starts the backend>
+# e.g.   DURATION=120 ./logging-benchmark.sh -- java -jar target/application-control-panel-1.0.0.jar
+# The start command must accept Spring Boot arguments: the second run appends
+# --spring.profiles.active=json-logs to it. Backend output goes to load-test-backend.log.
+set -euo pipefail
+
+[ "${1:-}" = "--" ] && shift
+[ $# -gt 0 ] || { echo "usage: $0 -- <start command>" >&2; exit 1; }
+
+run() {
+    local label=$1
+    shift
+    echo "== $label"
+    # SLO breaches are reported, not fatal: both runs are needed for the comparison
+    ./load-test.sh -- "$@" | tee "logging-benchmark-$label.txt" || true
+}
+
+run baseline "$@"
+run json-logs "$@" --spring.profiles.active=json-logs
+
+for label in baseline json-logs; do
+    echo
+    echo "== $label"
+    awk '/^op / { table = 1 } table && NF == 0 { exit } table' "logging-benchmark-$label.txt"
+done
@@ -0,0 +1,16 @@
+#!/usr/bin/env bash
+# Measures Jackson serialization throughput of the response paths (Serializationbenchmark.java):
+# reflective vs Blackbird vs precomputed writer vs CBOR for the button list, and upstream JSON
+# bodies parsed and re-written vs passed through. Compiles the backend first.
+# Usage: ./serialization-benchmark.sh
+# e.g.   BUTTONS=1000 CASE_SECONDS=10 ./serialization-benchmark.sh
+set -euo pipefail
+
+BUTTONS=${BUTTONS:-200}
+CASE_SECONDS=${CASE_SECONDS:-5}
+
+mvn -B -q compile
+mvn -B -q dependency:build-classpath -Dmdep.outputFile=target/benchmark.classpath
+
+java -cp "target/classes:$(cat target/benchmark.classpath)" \
+    -Dbuttons="$BUTTONS" -Dseconds="$CASE_SECONDS" Serializationbenchmark.java
@@ -0,0 +1,18 @@
+#!/usr/bin/env bash
+# Measures the result spool (Spoolbenchmark.java) on generated JSON bodies larger than the
+# heap: capture throughput and heap held after capture, then first and repeated reads of
+# line and element pages at the start, middle and end. Spool files go to a temp directory
+# that is removed afterwards. Compiles the backend first.
+# Usage: ./spool-benchmark.sh
+# e.g.   SIZES=256,2048 HEAP=128m ./spool-benchmark.sh
+set -euo pipefail
+
+SIZES=${SIZES:-64,256,1024}
+READS=${READS:-20}
+HEAP=${HEAP:-256m}
+
+mvn -B -q compile
+mvn -B -q dependency:build-classpath -Dmdep.outputFile=target/benchmark.classpath
+
+java -Xmx"$HEAP" -cp "target/classes:$(cat target/benchmark.classpath)" \
+    -Dsizes="$SIZES" -Dreads="$READS" Spoolbenchmark.java
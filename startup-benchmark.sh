@@ -0,0 +1,46 @@
+#!/usr/bin/env bash
+# Measures time-to-first-request of the backend over several cold starts.
+# Usage: ./startup-benchmark.sh [runs] -- <command that starts the backend>
+# e.g.   ./startup-benchmark.sh 5 -- java -jar target/application-control-panel-1.0.0.jar
+#        ./startup-benchmark.sh 5 -- docker run --rm --network host control-panel-backend
+set -euo pipefail
+
+RUNS=${1:-5}
+shift || true
+[ "${1:-}" = "--" ] && shift
+[ $# -gt 0 ] || { echo "usage: $0 [runs] -- <start command>" >&2; exit 1; }
+
+URL=${URL:-http://localhost:8080/api/control-panel/buttons}
+AUTH=${AUTH:-user:password}
+TIMEOUT_S=${TIMEOUT_S:-120}
+
+results=()
+for run in $(seq 1 "$RUNS"); do
+    start=$(date +%s%N)
+    "$@" > "startup-run-$run.log" 2>&1 &
+    pid=$!
+
+    ready=""
+    while [ $(( ($(date +%s%N) - start) / 1000000000 )) -lt "$TIMEOUT_S" ]; do
+        if curl -sf -o /dev/null -u "$AUTH" "$URL"; then
+            ready=$(( ($(date +%s%N) - start) / 1000000 ))
+            break
+        fi
+        sleep 0.05
+    done
+
+    kill "$pid" 2>/dev/null || true
+    wait "$pid" 2>/dev/null || true
+
+    if [ -z "$ready" ]; then
+        echo "run $run: not ready within ${TIMEOUT_S}s (see startup-run-$run.log)" >&2
+        exit 1
+    fi
+    echo "run $run: first request served after ${ready} ms"
+    results+=("$ready")
+done
+
+printf '%s\n' "${results[@]}" | sort -n | awk '
+    { v[NR] = $1; sum += $1 }
+    END { printf "runs=%d min=%d ms median=%d ms max=%d ms mean=%.0f ms\n",
+          NR, v[1], v[int((NR + 1) / 2)], v[NR], sum / NR }'
@@ -0,0 +1,16 @@
+#!/usr/bin/env bash
+# Compares XmlResponseReader (StAX) with a DOM parse on generated SOAP responses
+# (Xmlbenchmark.java): ms per document, MB/s, bytes allocated per document and heap held by
+# the result, for the whole document and for a projection. Compiles the backend first.
+# Usage: ./xml-benchmark.sh
+# e.g.   SIZES=1,8,32,64 CASE_SECONDS=10 ./xml-benchmark.sh
+set -euo pipefail
+
+SIZES=${SIZES:-1,8,32}
+CASE_SECONDS=${CASE_SECONDS:-5}
+
+mvn -B -q compile
+mvn -B -q dependency:build-classpath -Dmdep.outputFile=target/benchmark.classpath
+
+java -cp "target/classes:$(cat target/benchmark.classpath)" \
+    -Dsizes="$SIZES" -Dseconds="$CASE_SECONDS" Xmlbenchmark.java